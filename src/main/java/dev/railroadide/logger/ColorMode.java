@@ -0,0 +1,20 @@
+package dev.railroadide.logger;
+
+/**
+ * Enum representing whether a logger colours its console output with ANSI escape sequences.
+ */
+public enum ColorMode {
+    /**
+     * Colours the output only when the application is attached to a terminal, and prints plain text when the output
+     * is redirected to a file or a pipe.
+     */
+    AUTO,
+    /**
+     * Always colours the output.
+     */
+    ALWAYS,
+    /**
+     * Never colours the output.
+     */
+    NEVER
+}
@@ -1,10 +1,14 @@
 package dev.railroadide.logger;
 
+import dev.railroadide.logger.util.RateLimiters;
+
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * Interface for a logging system that provides methods to log messages at different levels.
@@ -24,6 +28,53 @@ public interface Logger {
      */
     String getName();
 
+    /**
+     * Checks whether a message at the specified level would be written to the console or to any log file.
+     * Callers can use this to skip building expensive log arguments when the message would be discarded anyway.
+     *
+     * @param level The logging level to check.
+     * @return true if messages at this level are logged, false otherwise.
+     */
+    default boolean isEnabled(LoggingLevel level) {
+        return level.ordinal() <= Math.max(getLoggingLevel().ordinal(), getFileLoggingLevel().ordinal());
+    }
+
+    /**
+     * Checks whether error messages are logged.
+     *
+     * @return true if error messages are logged, false otherwise.
+     */
+    default boolean isErrorEnabled() {
+        return isEnabled(LoggingLevel.ERROR);
+    }
+
+    /**
+     * Checks whether warning messages are logged.
+     *
+     * @return true if warning messages are logged, false otherwise.
+     */
+    default boolean isWarnEnabled() {
+        return isEnabled(LoggingLevel.WARN);
+    }
+
+    /**
+     * Checks whether informational messages are logged.
+     *
+     * @return true if informational messages are logged, false otherwise.
+     */
+    default boolean isInfoEnabled() {
+        return isEnabled(LoggingLevel.INFO);
+    }
+
+    /**
+     * Checks whether debug messages are logged.
+     *
+     * @return true if debug messages are logged, false otherwise.
+     */
+    default boolean isDebugEnabled() {
+        return isEnabled(LoggingLevel.DEBUG);
+    }
+
     /**
      * Logs an error message with the specified objects.
      *
@@ -34,6 +85,138 @@ public interface Logger {
         log(logMessage, LoggingLevel.ERROR, objects);
     }
 
+    /**
+     * Logs an error message without any objects.
+     *
+     * @param logMessage The error message to log.
+     */
+    default void error(String logMessage) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR);
+    }
+
+    /**
+     * Logs an error message with a single object.
+     *
+     * @param logMessage The error message to log.
+     * @param object     An object to include in the log message.
+     */
+    default void error(String logMessage, Object object) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR, object);
+    }
+
+    /**
+     * Logs an error message with two objects.
+     *
+     * @param logMessage The error message to log.
+     * @param first      The first object to include in the log message.
+     * @param second     The second object to include in the log message.
+     */
+    default void error(String logMessage, Object first, Object second) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR, first, second);
+    }
+
+    /**
+     * Logs an error message with three objects.
+     *
+     * @param logMessage The error message to log.
+     * @param first      The first object to include in the log message.
+     * @param second     The second object to include in the log message.
+     * @param third      The third object to include in the log message.
+     */
+    default void error(String logMessage, Object first, Object second, Object third) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR, first, second, third);
+    }
+
+    /**
+     * Logs an error message with a single long value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The error message to log.
+     * @param value      A long value to include in the log message.
+     */
+    default void error(String logMessage, long value) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR, value);
+    }
+
+    /**
+     * Logs an error message with a single int value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The error message to log.
+     * @param value      An int value to include in the log message.
+     */
+    default void error(String logMessage, int value) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR, value);
+    }
+
+    /**
+     * Logs an error message with a single double value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The error message to log.
+     * @param value      A double value to include in the log message.
+     */
+    default void error(String logMessage, double value) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR, value);
+    }
+
+    /**
+     * Logs an error message with a single float value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The error message to log.
+     * @param value      A float value to include in the log message.
+     */
+    default void error(String logMessage, float value) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR, value);
+    }
+
+    /**
+     * Logs an error message with a single boolean value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The error message to log.
+     * @param value      A boolean value to include in the log message.
+     */
+    default void error(String logMessage, boolean value) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR, value);
+    }
+
+    /**
+     * Logs an error message with a single char value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The error message to log.
+     * @param value      A char value to include in the log message.
+     */
+    default void error(String logMessage, char value) {
+        if (!isEnabled(LoggingLevel.ERROR))
+            return;
+
+        log(logMessage, LoggingLevel.ERROR, value);
+    }
+
     /**
      * Logs a warning message with the specified objects.
      *
@@ -44,6 +227,138 @@ public interface Logger {
         log(logMessage, LoggingLevel.WARN, objects);
     }
 
+    /**
+     * Logs a warning message without any objects.
+     *
+     * @param logMessage The warning message to log.
+     */
+    default void warn(String logMessage) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN);
+    }
+
+    /**
+     * Logs a warning message with a single object.
+     *
+     * @param logMessage The warning message to log.
+     * @param object     An object to include in the log message.
+     */
+    default void warn(String logMessage, Object object) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN, object);
+    }
+
+    /**
+     * Logs a warning message with two objects.
+     *
+     * @param logMessage The warning message to log.
+     * @param first      The first object to include in the log message.
+     * @param second     The second object to include in the log message.
+     */
+    default void warn(String logMessage, Object first, Object second) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN, first, second);
+    }
+
+    /**
+     * Logs a warning message with three objects.
+     *
+     * @param logMessage The warning message to log.
+     * @param first      The first object to include in the log message.
+     * @param second     The second object to include in the log message.
+     * @param third      The third object to include in the log message.
+     */
+    default void warn(String logMessage, Object first, Object second, Object third) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN, first, second, third);
+    }
+
+    /**
+     * Logs a warning message with a single long value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The warning message to log.
+     * @param value      A long value to include in the log message.
+     */
+    default void warn(String logMessage, long value) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN, value);
+    }
+
+    /**
+     * Logs a warning message with a single int value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The warning message to log.
+     * @param value      An int value to include in the log message.
+     */
+    default void warn(String logMessage, int value) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN, value);
+    }
+
+    /**
+     * Logs a warning message with a single double value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The warning message to log.
+     * @param value      A double value to include in the log message.
+     */
+    default void warn(String logMessage, double value) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN, value);
+    }
+
+    /**
+     * Logs a warning message with a single float value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The warning message to log.
+     * @param value      A float value to include in the log message.
+     */
+    default void warn(String logMessage, float value) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN, value);
+    }
+
+    /**
+     * Logs a warning message with a single boolean value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The warning message to log.
+     * @param value      A boolean value to include in the log message.
+     */
+    default void warn(String logMessage, boolean value) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN, value);
+    }
+
+    /**
+     * Logs a warning message with a single char value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The warning message to log.
+     * @param value      A char value to include in the log message.
+     */
+    default void warn(String logMessage, char value) {
+        if (!isEnabled(LoggingLevel.WARN))
+            return;
+
+        log(logMessage, LoggingLevel.WARN, value);
+    }
+
     /**
      * Logs an informational message with the specified objects.
      *
@@ -54,6 +369,138 @@ public interface Logger {
         log(logMessage, LoggingLevel.INFO, objects);
     }
 
+    /**
+     * Logs an informational message without any objects.
+     *
+     * @param logMessage The informational message to log.
+     */
+    default void info(String logMessage) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO);
+    }
+
+    /**
+     * Logs an informational message with a single object.
+     *
+     * @param logMessage The informational message to log.
+     * @param object     An object to include in the log message.
+     */
+    default void info(String logMessage, Object object) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO, object);
+    }
+
+    /**
+     * Logs an informational message with two objects.
+     *
+     * @param logMessage The informational message to log.
+     * @param first      The first object to include in the log message.
+     * @param second     The second object to include in the log message.
+     */
+    default void info(String logMessage, Object first, Object second) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO, first, second);
+    }
+
+    /**
+     * Logs an informational message with three objects.
+     *
+     * @param logMessage The informational message to log.
+     * @param first      The first object to include in the log message.
+     * @param second     The second object to include in the log message.
+     * @param third      The third object to include in the log message.
+     */
+    default void info(String logMessage, Object first, Object second, Object third) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO, first, second, third);
+    }
+
+    /**
+     * Logs an informational message with a single long value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The informational message to log.
+     * @param value      A long value to include in the log message.
+     */
+    default void info(String logMessage, long value) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO, value);
+    }
+
+    /**
+     * Logs an informational message with a single int value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The informational message to log.
+     * @param value      An int value to include in the log message.
+     */
+    default void info(String logMessage, int value) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO, value);
+    }
+
+    /**
+     * Logs an informational message with a single double value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The informational message to log.
+     * @param value      A double value to include in the log message.
+     */
+    default void info(String logMessage, double value) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO, value);
+    }
+
+    /**
+     * Logs an informational message with a single float value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The informational message to log.
+     * @param value      A float value to include in the log message.
+     */
+    default void info(String logMessage, float value) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO, value);
+    }
+
+    /**
+     * Logs an informational message with a single boolean value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The informational message to log.
+     * @param value      A boolean value to include in the log message.
+     */
+    default void info(String logMessage, boolean value) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO, value);
+    }
+
+    /**
+     * Logs an informational message with a single char value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The informational message to log.
+     * @param value      A char value to include in the log message.
+     */
+    default void info(String logMessage, char value) {
+        if (!isEnabled(LoggingLevel.INFO))
+            return;
+
+        log(logMessage, LoggingLevel.INFO, value);
+    }
+
     /**
      * Logs a debug message with the specified objects.
      *
@@ -64,8 +511,265 @@ public interface Logger {
         log(logMessage, LoggingLevel.DEBUG, objects);
     }
 
+    /**
+     * Logs a debug message without any objects.
+     *
+     * @param logMessage The debug message to log.
+     */
+    default void debug(String logMessage) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG);
+    }
+
+    /**
+     * Logs a debug message with a single object.
+     *
+     * @param logMessage The debug message to log.
+     * @param object     An object to include in the log message.
+     */
+    default void debug(String logMessage, Object object) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG, object);
+    }
+
+    /**
+     * Logs a debug message with two objects.
+     *
+     * @param logMessage The debug message to log.
+     * @param first      The first object to include in the log message.
+     * @param second     The second object to include in the log message.
+     */
+    default void debug(String logMessage, Object first, Object second) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG, first, second);
+    }
+
+    /**
+     * Logs a debug message with three objects.
+     *
+     * @param logMessage The debug message to log.
+     * @param first      The first object to include in the log message.
+     * @param second     The second object to include in the log message.
+     * @param third      The third object to include in the log message.
+     */
+    default void debug(String logMessage, Object first, Object second, Object third) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG, first, second, third);
+    }
+
+    /**
+     * Logs a debug message with a single long value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The debug message to log.
+     * @param value      A long value to include in the log message.
+     */
+    default void debug(String logMessage, long value) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG, value);
+    }
+
+    /**
+     * Logs a debug message with a single int value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The debug message to log.
+     * @param value      An int value to include in the log message.
+     */
+    default void debug(String logMessage, int value) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG, value);
+    }
+
+    /**
+     * Logs a debug message with a single double value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The debug message to log.
+     * @param value      A double value to include in the log message.
+     */
+    default void debug(String logMessage, double value) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG, value);
+    }
+
+    /**
+     * Logs a debug message with a single float value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The debug message to log.
+     * @param value      A float value to include in the log message.
+     */
+    default void debug(String logMessage, float value) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG, value);
+    }
+
+    /**
+     * Logs a debug message with a single boolean value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The debug message to log.
+     * @param value      A boolean value to include in the log message.
+     */
+    default void debug(String logMessage, boolean value) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG, value);
+    }
+
+    /**
+     * Logs a debug message with a single char value, which is only boxed if the message is logged.
+     *
+     * @param logMessage The debug message to log.
+     * @param value      A char value to include in the log message.
+     */
+    default void debug(String logMessage, char value) {
+        if (!isEnabled(LoggingLevel.DEBUG))
+            return;
+
+        log(logMessage, LoggingLevel.DEBUG, value);
+    }
+
+    /**
+     * Logs an error message that is only built if error messages are logged.
+     * <p>
+     * The lazy variants have names of their own rather than overloading {@link #error(String, Object...)}, so that
+     * a call such as {@code error(null)} keeps resolving to the string overloads.
+     *
+     * @param messageSupplier A supplier for the error message to log.
+     */
+    default void errorLazy(Supplier<String> messageSupplier) {
+        log(LoggingLevel.ERROR, messageSupplier);
+    }
+
+    /**
+     * Logs a warning message that is only built if warning messages are logged.
+     *
+     * @param messageSupplier A supplier for the warning message to log.
+     */
+    default void warnLazy(Supplier<String> messageSupplier) {
+        log(LoggingLevel.WARN, messageSupplier);
+    }
+
+    /**
+     * Logs an informational message that is only built if informational messages are logged.
+     *
+     * @param messageSupplier A supplier for the informational message to log.
+     */
+    default void infoLazy(Supplier<String> messageSupplier) {
+        log(LoggingLevel.INFO, messageSupplier);
+    }
+
+    /**
+     * Logs a debug message that is only built if debug messages are logged.
+     *
+     * @param messageSupplier A supplier for the debug message to log.
+     */
+    default void debugLazy(Supplier<String> messageSupplier) {
+        log(LoggingLevel.DEBUG, messageSupplier);
+    }
+
+    /**
+     * Logs a message that is only built if messages at the specified logging level are logged.
+     *
+     * @param level           The logging level.
+     * @param messageSupplier A supplier for the message to log.
+     */
+    default void log(LoggingLevel level, Supplier<String> messageSupplier) {
+        if (!isEnabled(level))
+            return;
+
+        // Pass the text as an argument, so that braces in it are not taken for placeholders
+        log("{}", level, messageSupplier.get());
+    }
+
+    /**
+     * Logs a message with objects that are only computed if messages at the specified logging level are logged.
+     * Each supplier is evaluated once, in order, and its result is used in place of the supplier itself.
+     *
+     * @param level     The logging level.
+     * @param message   The message to log.
+     * @param suppliers Suppliers for the additional objects to include in the log message.
+     */
+    default void log(LoggingLevel level, String message, Supplier<?>... suppliers) {
+        if (!isEnabled(level))
+            return;
+
+        var objects = new Object[suppliers.length];
+        for (int i = 0; i < suppliers.length; i++) {
+            Supplier<?> supplier = suppliers[i];
+            objects[i] = supplier == null ? null : supplier.get();
+        }
+
+        log(message, level, objects);
+    }
+
+    /**
+     * Gets a view of this logger that lets at most one message through per interval, for the line of code it is
+     * called from. This is meant to be used inline, such as {@code logger.every(Duration.ofSeconds(10)).warn(...)}.
+     * <p>
+     * The call site is found by walking the stack. Hot code can avoid this by using {@link #every(Object, Duration)}
+     * with its own key, or by keeping the returned logger in a field.
+     *
+     * @param interval The minimum time between messages.
+     * @return The rate limited logger for the call site.
+     */
+    default Logger every(Duration interval) {
+        return rateLimited(RateLimitedLogger.callSite(), 1, interval);
+    }
+
+    /**
+     * Gets a view of this logger that lets at most one message through per interval, shared by every call made with
+     * the same key.
+     *
+     * @param key      The key of the rate limit.
+     * @param interval The minimum time between messages.
+     * @return The rate limited logger for the key.
+     */
+    default Logger every(Object key, Duration interval) {
+        return rateLimited(key, 1, interval);
+    }
+
+    /**
+     * Gets a view of this logger that lets at most the given number of messages through per second, for the line of
+     * code it is called from. Like {@link #every(Duration)}, this walks the stack to find the call site.
+     *
+     * @param permits The number of messages per second.
+     * @return The rate limited logger for the call site.
+     */
+    default Logger atMostPerSecond(int permits) {
+        return rateLimited(RateLimitedLogger.callSite(), permits, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Gets the rate limited view of this logger for the given key, creating it with the given rate if it doesn't
+     * exist yet. Every call with the same key shares the same rate, which is the one the view was created with.
+     *
+     * @param key     The key of the rate limit.
+     * @param permits The number of messages let through per period, which is also the largest burst.
+     * @param period  The period the messages are spread over.
+     * @return The rate limited logger for the key.
+     */
+    default Logger rateLimited(Object key, int permits, Duration period) {
+        return new RateLimitedLogger(this, RateLimiters.of(this).get(key, permits, period));
+    }
+
     /**
      * Logs a message with the specified logging level and objects.
+     * Implementations should return before doing any formatting work if {@link #isEnabled(LoggingLevel)} is false.
      *
      * @param message The message to log.
      * @param level   The logging level.
@@ -145,6 +849,26 @@ public interface Logger {
      */
     void setLoggingLevel(LoggingLevel level);
 
+    /**
+     * Gets the logging level used for the log files.
+     * Unless set separately, this is the same as {@link #getLoggingLevel()}, which is all that loggers without a
+     * separate file logging level return.
+     *
+     * @return The logging level for the log files.
+     */
+    default LoggingLevel getFileLoggingLevel() {
+        return getLoggingLevel();
+    }
+
+    /**
+     * Sets the logging level used for the log files, independently of the console logging level.
+     * Loggers without a separate file logging level ignore this.
+     *
+     * @param level The logging level for the log files, or null to use the console logging level.
+     */
+    default void setFileLoggingLevel(LoggingLevel level) {
+    }
+
     /**
      * Adds a file to which logs will be written.
      *
@@ -209,6 +933,12 @@ public interface Logger {
      */
     String formatFileTime(FileTime fileTime);
 
+    /**
+     * Writes any pending log messages to the log files.
+     */
+    default void flush() {
+    }
+
     /**
      * Closes the logger and releases any resources it holds.
      */
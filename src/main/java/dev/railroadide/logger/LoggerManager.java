@@ -1,9 +1,14 @@
 package dev.railroadide.logger;
 
+import dev.railroadide.logger.impl.ConsoleSink;
 import dev.railroadide.logger.impl.DefaultLogger;
+import dev.railroadide.logger.impl.LogDispatcher;
+import dev.railroadide.logger.impl.LogFileSink;
 import dev.railroadide.logger.util.LoggerUtils;
+import org.apache.commons.lang3.SystemUtils;
 
 import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -14,6 +19,7 @@ import java.time.DateTimeException;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
 /**
@@ -22,8 +28,14 @@ import java.util.stream.Stream;
  */
 public final class LoggerManager {
     private static final List<Logger> LOGGERS = new ArrayList<>();
+    private static final Map<Path, LogFileSink> FILE_SINKS = new ConcurrentHashMap<>();
 
     private static boolean initialized = false;
+    private static int writerThreads = 1;
+    private static LogDispatcher dispatcher;
+    private static volatile boolean shutDown = false;
+    private static int consoleQueueCapacity = 8192;
+    private static volatile ConsoleSink consoleSink;
 
     /**
      * Initializes the LoggerManager, setting up all registered loggers and preparing log files.
@@ -33,6 +45,15 @@ public final class LoggerManager {
         if (initialized)
             return;
 
+        synchronized (LoggerManager.class) {
+            // A dispatcher that was shut down stays in place for loggers used after shutdown, until it is replaced here
+            if (dispatcher != null && !dispatcher.isRunning()) {
+                dispatcher = null;
+            }
+
+            shutDown = false;
+        }
+
         Set<Path> logFiles = new HashSet<>();
         for (Logger logger : LOGGERS) {
             if (logger == null)
@@ -81,6 +102,8 @@ public final class LoggerManager {
         if (!initialized)
             return;
 
+        // Set first, so that messages logged while the loggers are being closed are still written
+        shutDown = true;
         for (Logger logger : LOGGERS) {
             if (logger == null)
                 continue;
@@ -88,9 +111,115 @@ public final class LoggerManager {
             logger.close();
         }
 
+        synchronized (LoggerManager.class) {
+            // The dispatcher is kept, so loggers write on the logging thread from now on instead of starting new writer threads
+            if (dispatcher != null) {
+                dispatcher.shutdown();
+            }
+
+            // The console sink is kept, and prints on the logging thread from now on
+            if (consoleSink != null) {
+                consoleSink.shutdown();
+            }
+        }
+
+        // The sinks stay registered, and reopen their files if they are written to again
+        for (LogFileSink sink : FILE_SINKS.values()) {
+            sink.close();
+        }
+
         initialized = false;
     }
 
+    /**
+     * Gets the dispatcher that writes the log files of all loggers, starting its writer threads if needed.
+     * After {@link #shutdown()}, this is the dispatcher that was shut down, until the LoggerManager is initialized again.
+     *
+     * @return The shared log dispatcher.
+     */
+    public static synchronized LogDispatcher getDispatcher() {
+        if (dispatcher == null) {
+            dispatcher = new LogDispatcher(writerThreads);
+        }
+
+        return dispatcher;
+    }
+
+    /**
+     * Checks whether the LoggerManager has been shut down and not initialized again. Loggers used in the meantime
+     * write their messages on the logging thread, since there are no writer threads left to do it.
+     *
+     * @return Whether the LoggerManager has been shut down.
+     */
+    public static boolean isShutDown() {
+        return shutDown;
+    }
+
+    /**
+     * Gets the sink that prints the console output of all loggers, starting its printing thread if needed.
+     *
+     * @return The shared console sink.
+     */
+    public static ConsoleSink getConsoleSink() {
+        ConsoleSink sink = consoleSink;
+        if (sink != null)
+            return sink;
+
+        synchronized (LoggerManager.class) {
+            if (consoleSink == null) {
+                consoleSink = new ConsoleSink(consoleQueueCapacity);
+            }
+
+            return consoleSink;
+        }
+    }
+
+    /**
+     * Sets the number of lines that can wait to be printed to the console before the loggers' console overflow
+     * policies apply. The capacity is rounded up to the next power of two.
+     * This must be called before anything is logged.
+     *
+     * @param capacity The console queue capacity.
+     */
+    public static synchronized void setConsoleQueueCapacity(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Console queue capacity must be greater than 0.");
+
+        if (consoleSink != null)
+            throw new IllegalStateException("Console queue capacity must be set before anything is logged.");
+
+        consoleQueueCapacity = capacity;
+    }
+
+    /**
+     * Gets the sink for a log file, shared by every logger that writes to that file.
+     *
+     * @param file The path of the log file.
+     * @return The sink for the log file.
+     */
+    public static LogFileSink getFileSink(Path file) {
+        if (file == null)
+            throw new IllegalArgumentException("Log file must not be null");
+
+        return FILE_SINKS.computeIfAbsent(file.toAbsolutePath().normalize(), LogFileSink::new);
+    }
+
+    /**
+     * Sets the number of threads that write the log files of all loggers.
+     * This must be called before any logger is initialized.
+     *
+     * @param threads The number of writer threads.
+     */
+    public static synchronized void setWriterThreads(int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Writer thread count must be greater than 0.");
+
+        if (dispatcher != null && dispatcher.isRunning())
+            throw new IllegalStateException("Writer thread count must be set before any logger is initialized.");
+
+        writerThreads = threads;
+    }
+
     /**
      * Creates a new DefaultLogger.Builder instance for a logger with the specified name.
      *
@@ -190,29 +319,93 @@ public final class LoggerManager {
 
             FileTime dateCreated = Files.readAttributes(logPath, BasicFileAttributes.class).creationTime();
             List<Logger> loggers = logFiles.get(logPath);
-            for (Logger logger : loggers) {
-                Path logDirectory = logger.getLogDirectory();
-                String timestamp = logger.formatFileTime(dateCreated);
-                String logNameWithoutExtension = logPath.getFileName().toString().substring(0, logPath.getFileName().toString().lastIndexOf('.'));
-                String candidate = String.format("%s_%s.log", timestamp, logNameWithoutExtension);
-                Path archivedLogPath = logDirectory.resolve(candidate);
-
-                int count = 1;
-                while (Files.exists(archivedLogPath)) {
-                    archivedLogPath = logDirectory.resolve(String.format("%s_%s(%d).log", timestamp, logNameWithoutExtension, count));
-                    count++;
+
+            // Keep writers out while the file is moved, and make a sink that already has it open start a new file
+            LogFileSink sink = getFileSink(logPath);
+            synchronized (sink) {
+                Set<Path> archiveDirectories = new HashSet<>();
+                List<Path> toCompress = new ArrayList<>();
+                Path movedLogPath = null;
+                for (Logger logger : loggers) {
+                    // Loggers sharing a log directory share the archive, so the file is only archived once per directory
+                    if (!archiveDirectories.add(logger.getLogDirectory().toAbsolutePath().normalize()))
+                        continue;
+
+                    Path archivedLogPath = LoggerUtils.archivePath(logger, logPath, dateCreated);
+                    if (movedLogPath == null) {
+                        moveAndRecreate(logPath, archivedLogPath);
+                        movedLogPath = archivedLogPath;
+                    } else {
+                        Files.copy(movedLogPath, archivedLogPath, StandardCopyOption.REPLACE_EXISTING);
+                    }
+
+                    if (logger.isCompressionEnabled()) {
+                        toCompress.add(archivedLogPath);
+                    }
                 }
 
-                copyAndRecreate(logPath, archivedLogPath);
-                if (logger.isCompressionEnabled()) {
-                    LoggerUtils.compress(archivedLogPath);
-                    Files.deleteIfExists(archivedLogPath);
+                // Only compress once every copy has been made, since compressing deletes the moved file
+                for (Path archivedLogPath : toCompress) {
+                    getDispatcher().compressLater(archivedLogPath);
                 }
+
+                sink.reopen();
             }
         }
 
-        for (Logger logger : LOGGERS) {
-            deleteOldLogs(logger);
+        // Queued behind the compressions, so an archive is never deleted while it is still being compressed
+        List<Logger> loggers = List.copyOf(LOGGERS);
+        getDispatcher().afterArchiving(() -> {
+            for (Logger logger : loggers) {
+                try {
+                    deleteOldLogs(logger);
+                } catch (IOException exception) {
+                    System.err.println("Failed to delete old log files of " + logger.getName() + ": " + exception.getMessage());
+                }
+            }
+        });
+    }
+
+    private static void moveAndRecreate(Path filePath, Path newPath) throws IOException {
+        // Renaming takes the same time however large the log is, but on Windows the new file would inherit the old
+        // one's creation time through file-system tunneling, so only rename where we can reset the creation time
+        if (!canResetCreationTime(filePath)) {
+            copyAndRecreate(filePath, newPath);
+            return;
+        }
+
+        try {
+            Files.move(filePath, newPath, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            copyAndRecreate(filePath, newPath);
+            return;
+        } catch (IOException exception) {
+            // The file may be held open by another process, which a copy still works around
+            System.err.println("Failed to move log file " + filePath + ", copying it instead: " + exception.getMessage());
+            copyAndRecreate(filePath, newPath);
+            return;
+        }
+
+        // A rename keeps the modification time of the last write, which would make an old log look due for deletion
+        // the moment it is archived, so date the archive like a copy would be
+        Files.setLastModifiedTime(newPath, FileTime.from(Instant.now()));
+
+        Files.createFile(filePath);
+        try {
+            Files.setAttribute(filePath, "creationTime", FileTime.from(Instant.now()));
+        } catch (Exception ignored) {}
+    }
+
+    private static boolean canResetCreationTime(Path filePath) {
+        if (!SystemUtils.IS_OS_WINDOWS)
+            return true;
+
+        try {
+            FileTime creationTime = Files.readAttributes(filePath, BasicFileAttributes.class).creationTime();
+            Files.setAttribute(filePath, "creationTime", creationTime);
+            return true;
+        } catch (Exception exception) {
+            return false;
         }
     }
 
@@ -0,0 +1,27 @@
+package dev.railroadide.logger;
+
+/**
+ * Enum representing what a logger does with a new message when its queue of pending messages is full.
+ */
+public enum OverflowPolicy {
+    /**
+     * Blocks the logging thread until there is space in the queue.
+     */
+    BLOCK,
+    /**
+     * Discards the new message.
+     */
+    DROP_NEWEST,
+    /**
+     * Discards the oldest pending message to make space for the new one.
+     */
+    DROP_OLDEST,
+    /**
+     * Discards the new message if it is less severe than the overflow level, and blocks otherwise.
+     */
+    DROP_BELOW_LEVEL,
+    /**
+     * Writes the pending messages on the logging thread to make space for the new one.
+     */
+    SYNCHRONOUS
+}
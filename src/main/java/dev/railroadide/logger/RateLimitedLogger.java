@@ -0,0 +1,261 @@
+package dev.railroadide.logger;
+
+import dev.railroadide.logger.util.RateLimiter;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A view of a logger that only lets messages through at a limited rate, as returned by {@link Logger#every(Duration)},
+ * {@link Logger#every(Object, Duration)} and {@link Logger#atMostPerSecond(int)}.
+ * <p>
+ * Messages that are refused are dropped before anything is formatted, and messages at levels that are not logged
+ * don't use up the rate. Everything other than logging is passed straight through to the underlying logger.
+ */
+public final class RateLimitedLogger implements Logger {
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final Set<String> LOGGER_CLASSES = Set.of(Logger.class.getName(), RateLimitedLogger.class.getName());
+
+    private final Logger logger;
+    private final RateLimiter rateLimiter;
+
+    /**
+     * Creates a rate limited view of a logger.
+     *
+     * @param logger      The logger to pass messages to.
+     * @param rateLimiter The rate limiter that decides which messages are passed on.
+     */
+    public RateLimitedLogger(Logger logger, RateLimiter rateLimiter) {
+        if (logger == null)
+            throw new IllegalArgumentException("Logger must not be null.");
+
+        if (rateLimiter == null)
+            throw new IllegalArgumentException("Rate limiter must not be null.");
+
+        this.logger = logger;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * Identifies the code that called into the logger, as the key of a rate limit that is not given one explicitly.
+     * This walks the stack, so code that is hot enough to need a rate limit may want to pass its own key or keep the
+     * rate limited logger in a field instead.
+     *
+     * @return A key identifying the calling method and the position of the call in it.
+     */
+    static Object callSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !LOGGER_CLASSES.contains(frame.getClassName()))
+                .findFirst()
+                .map(CallSite::new)
+                .orElseThrow());
+    }
+
+    /**
+     * Gets the number of messages that were dropped because they came in faster than the rate allows, counted over
+     * every view that shares this view's rate.
+     *
+     * @return The number of dropped messages.
+     */
+    public long getDeniedMessages() {
+        return rateLimiter.getDenied();
+    }
+
+    @Override
+    public void log(String message, LoggingLevel level, Object... objects) {
+        if (!admit(level))
+            return;
+
+        logger.log(message, level, objects);
+    }
+
+    // The supplier overloads are checked here too, since the defaults would run the suppliers before calling log
+
+    @Override
+    public void log(LoggingLevel level, Supplier<String> messageSupplier) {
+        if (!admit(level))
+            return;
+
+        logger.log(level, messageSupplier);
+    }
+
+    @Override
+    public void log(LoggingLevel level, String message, Supplier<?>... suppliers) {
+        if (!admit(level))
+            return;
+
+        logger.log(level, message, suppliers);
+    }
+
+    private boolean admit(LoggingLevel level) {
+        // Levels that are not logged don't use up the rate
+        return logger.isEnabled(level) && rateLimiter.tryAcquire();
+    }
+
+    @Override
+    public Logger rateLimited(Object key, int permits, Duration period) {
+        return logger.rateLimited(key, permits, period);
+    }
+
+    @Override
+    public String getName() {
+        return logger.getName();
+    }
+
+    @Override
+    public boolean isEnabled(LoggingLevel level) {
+        return logger.isEnabled(level);
+    }
+
+    @Override
+    public void setCompressionEnabled(boolean compression) {
+        logger.setCompressionEnabled(compression);
+    }
+
+    @Override
+    public boolean isCompressionEnabled() {
+        return logger.isCompressionEnabled();
+    }
+
+    @Override
+    public long getLogFrequency() {
+        return logger.getLogFrequency();
+    }
+
+    @Override
+    public void setLogFrequency(long frequency, TimeUnit timeUnit) {
+        logger.setLogFrequency(frequency, timeUnit);
+    }
+
+    @Override
+    public long getDeletionFrequency() {
+        return logger.getDeletionFrequency();
+    }
+
+    @Override
+    public void setDeletionFrequency(long frequency, TimeUnit timeUnit) {
+        logger.setDeletionFrequency(frequency, timeUnit);
+    }
+
+    @Override
+    public Path getLogDirectory() {
+        return logger.getLogDirectory();
+    }
+
+    @Override
+    public void setLogDirectory(Path logDirectory) {
+        logger.setLogDirectory(logDirectory);
+    }
+
+    @Override
+    public LoggingLevel getLoggingLevel() {
+        return logger.getLoggingLevel();
+    }
+
+    @Override
+    public void setLoggingLevel(LoggingLevel level) {
+        logger.setLoggingLevel(level);
+    }
+
+    @Override
+    public LoggingLevel getFileLoggingLevel() {
+        return logger.getFileLoggingLevel();
+    }
+
+    @Override
+    public void setFileLoggingLevel(LoggingLevel level) {
+        logger.setFileLoggingLevel(level);
+    }
+
+    @Override
+    public void addLogFile(Path file) {
+        logger.addLogFile(file);
+    }
+
+    @Override
+    public void setConfigFile(Path configFile) {
+        logger.setConfigFile(configFile);
+    }
+
+    @Override
+    public String getLoggingLayout() {
+        return logger.getLoggingLayout();
+    }
+
+    @Override
+    public void setLoggingLayout(String loggingLayout) {
+        logger.setLoggingLayout(loggingLayout);
+    }
+
+    @Override
+    public List<Path> getFilesToLogTo() {
+        return logger.getFilesToLogTo();
+    }
+
+    @Override
+    public DateTimeFormatter getLogDateFormat() {
+        return logger.getLogDateFormat();
+    }
+
+    @Override
+    public String formatFileTime(FileTime fileTime) {
+        return logger.formatFileTime(fileTime);
+    }
+
+    @Override
+    public void flush() {
+        logger.flush();
+    }
+
+    /**
+     * Does nothing, since the underlying logger is owned by whoever created it rather than by this view.
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * A position in the code, identified by the method and the bytecode index of the call within it.
+     */
+    private static final class CallSite {
+        private final String className;
+        private final String methodName;
+        private final String descriptor;
+        private final int byteCodeIndex;
+        private final int hash;
+
+        private CallSite(StackWalker.StackFrame frame) {
+            this.className = frame.getClassName();
+            this.methodName = frame.getMethodName();
+            this.descriptor = frame.getDescriptor();
+            this.byteCodeIndex = frame.getByteCodeIndex();
+            this.hash = ((className.hashCode() * 31 + methodName.hashCode()) * 31 + descriptor.hashCode()) * 31 + byteCodeIndex;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object)
+                return true;
+
+            if (!(object instanceof CallSite other))
+                return false;
+
+            return hash == other.hash
+                    && byteCodeIndex == other.byteCodeIndex
+                    && className.equals(other.className)
+                    && methodName.equals(other.methodName)
+                    && descriptor.equals(other.descriptor);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package dev.railroadide.logger;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Enum representing the time boundaries at which a log file is rotated while the application runs.
+ */
+public enum RotationInterval {
+    /**
+     * Never rotates the log file because of its age.
+     */
+    NONE,
+    /**
+     * Rotates the log file at the start of every hour.
+     */
+    HOURLY,
+    /**
+     * Rotates the log file at midnight, in the system time zone.
+     */
+    DAILY;
+
+    /**
+     * Gets the first boundary after the given time.
+     *
+     * @param epochMillis The time in milliseconds since the epoch.
+     * @return The time of the next boundary in milliseconds since the epoch, or {@link Long#MAX_VALUE} for {@link #NONE}.
+     */
+    public long nextBoundary(long epochMillis) {
+        var time = Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault());
+        return switch (this) {
+            case NONE -> Long.MAX_VALUE;
+            case HOURLY -> time.truncatedTo(ChronoUnit.HOURS).plusHours(1).toInstant().toEpochMilli();
+            case DAILY -> time.truncatedTo(ChronoUnit.DAYS).plusDays(1).toInstant().toEpochMilli();
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package dev.railroadide.logger.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes batches of log text and writes them to a {@link ByteSink}, reusing the same buffers every time. Log files
+ * are always written in UTF-8, while the console is written in the charset of standard output.
+ * A batch is either written in one go with {@link #write(StringBuilder, ByteSink)}, or built up from raw bytes and text
+ * between {@link #begin(ByteSink)} and {@link #end()}. Instances are not thread-safe.
+ */
+final class BatchEncoder {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final CharsetEncoder encoder;
+    // Heap buffers keep the encoder on its array fast path, which is many times faster than encoding into a direct buffer
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE / 4);
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteSink sink;
+
+    /**
+     * Creates an encoder that encodes to UTF-8.
+     */
+    BatchEncoder() {
+        this(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates an encoder that encodes to the given charset, replacing characters the charset can't represent.
+     *
+     * @param charset The charset to encode to.
+     */
+    BatchEncoder(Charset charset) {
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    /**
+     * Gets the charset this encoder encodes to.
+     *
+     * @return The charset.
+     */
+    Charset charset() {
+        return encoder.charset();
+    }
+
+    /**
+     * Encodes the text one buffer at a time and writes each full buffer to the sink.
+     *
+     * @param text The text to write.
+     * @param sink The sink to write to.
+     * @throws IOException If the text could not be written.
+     */
+    void write(StringBuilder text, ByteSink sink) throws IOException {
+        begin(sink);
+        try {
+            append(text);
+            end();
+        } finally {
+            this.sink = null;
+        }
+    }
+
+    /**
+     * Starts a batch that is written to the given sink.
+     *
+     * @param sink The sink to write to.
+     */
+    void begin(ByteSink sink) {
+        this.sink = sink;
+        this.bytes.clear();
+    }
+
+    /**
+     * Appends bytes that are already encoded, such as a precomputed escape sequence.
+     *
+     * @param prefix The bytes to append, which must fit in the encoder's buffer.
+     * @throws IOException If the buffer was full and could not be written.
+     */
+    void append(byte[] prefix) throws IOException {
+        if (bytes.remaining() < prefix.length) {
+            writeEncoded();
+        }
+
+        bytes.put(prefix);
+    }
+
+    /**
+     * Encodes text into the batch, writing every buffer that fills up along the way.
+     *
+     * @param text The text to append.
+     * @throws IOException If a full buffer could not be written.
+     */
+    void append(CharSequence text) throws IOException {
+        CharsetEncoder encoder = this.encoder.reset();
+        CharBuffer chars = this.chars.clear();
+
+        int length = text.length();
+        int offset = 0;
+        boolean endOfInput;
+        do {
+            int count = Math.min(chars.remaining(), length - offset);
+            getChars(text, offset, offset + count, chars.array(), chars.position());
+            chars.position(chars.position() + count);
+            offset += count;
+            endOfInput = offset == length;
+
+            chars.flip();
+            while (encoder.encode(chars, bytes, endOfInput).isOverflow()) {
+                writeEncoded();
+            }
+
+            // Keeps a surrogate pair that was split between two chunks
+            chars.compact();
+        } while (!endOfInput);
+
+        while (encoder.flush(bytes).isOverflow()) {
+            writeEncoded();
+        }
+    }
+
+    /**
+     * Writes whatever is left of the batch to the sink.
+     *
+     * @throws IOException If the rest of the batch could not be written.
+     */
+    void end() throws IOException {
+        try {
+            writeEncoded();
+        } finally {
+            this.sink = null;
+        }
+    }
+
+    private void writeEncoded() throws IOException {
+        bytes.flip();
+        try {
+            if (bytes.hasRemaining()) {
+                sink.write(bytes);
+            }
+        } finally {
+            bytes.clear();
+        }
+    }
+
+    private static void getChars(CharSequence text, int start, int end, char[] destination, int offset) {
+        if (text instanceof String string) {
+            string.getChars(start, end, destination, offset);
+        } else if (text instanceof StringBuilder builder) {
+            builder.getChars(start, end, destination, offset);
+        } else {
+            for (int i = start; i < end; i++) {
+                destination[offset++] = text.charAt(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package dev.railroadide.logger.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A destination for encoded log text.
+ */
+interface ByteSink {
+    /**
+     * Writes the remaining bytes of the buffer.
+     *
+     * @param bytes The bytes to write. Its position is advanced to its limit.
+     * @throws IOException If the bytes could not be written.
+     */
+    void write(ByteBuffer bytes) throws IOException;
+}
@@ -0,0 +1,298 @@
+package dev.railroadide.logger.impl;
+
+import dev.railroadide.logger.LoggingLevel;
+import dev.railroadide.logger.OverflowPolicy;
+import dev.railroadide.logger.util.RingBuffer;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.fusesource.jansi.Ansi;
+import org.fusesource.jansi.AnsiConsole;
+import org.fusesource.jansi.AnsiType;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.fusesource.jansi.Ansi.Color.*;
+import static org.fusesource.jansi.Ansi.ansi;
+
+/**
+ * Prints log lines to standard output on a background thread, so that logging threads never wait on a slow terminal
+ * or a full pipe.
+ * <p>
+ * Lines are queued as events in a bounded buffer of reusable {@link LogEvent}s, and are rendered and printed in batches,
+ * each batch being encoded straight into bytes in the charset of standard output, with the colour escape sequence of
+ * each level prepended from a precomputed prefix. Lines of loggers that don't colour their output are printed as plain
+ * text. What happens when the buffer is full is decided per message by the logger's
+ * console {@link OverflowPolicy}.
+ */
+public final class ConsoleSink {
+    private static final String[] PREFIXES = new String[LoggingLevel.values().length];
+    private static final String SUFFIX = ansi().reset() + System.lineSeparator();
+    private static final byte[] PLAIN_PREFIX = new byte[0];
+    private static final long OVERFLOW_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int MAX_RETAINED_LINE = 64 * 1024;
+
+    static {
+        for (LoggingLevel level : LoggingLevel.values()) {
+            Ansi.Color color = switch (level) {
+                case ERROR -> RED;
+                case WARN -> YELLOW;
+                case INFO -> GREEN;
+                case DEBUG -> BLUE;
+            };
+
+            PREFIXES[level.ordinal()] = ansi().eraseLine().fg(color).toString();
+        }
+    }
+
+    private final RingBuffer<LogEvent> messages;
+    private final LongAdder droppedMessages = new LongAdder();
+    private final ReentrantLock printLock = new ReentrantLock();
+    // Encoded in the charset of standard output, and replaced along with the encoder if that changes
+    private BatchEncoder encoder;
+    private final byte[][] prefixes = new byte[PREFIXES.length][];
+    private byte[] suffix;
+    private byte[] plainSuffix;
+    private final StringBuilder line = new StringBuilder();
+    private final ByteSink out = this::writeToStandardOut;
+    private final Thread thread;
+    private volatile boolean waiting;
+    private volatile boolean running = true;
+    private long reportedDroppedMessages;
+
+    /**
+     * Creates a console sink and starts its printing thread.
+     *
+     * @param capacity The number of lines that can wait to be printed, rounded up to the next power of two.
+     */
+    public ConsoleSink(int capacity) {
+        this.messages = new RingBuffer<>(capacity, LogEvent::new);
+        this.thread = new BasicThreadFactory.Builder()
+                .namingPattern("RailroadLogger-Console-%d")
+                .daemon(true)
+                .build()
+                .newThread(this::run);
+        this.thread.start();
+    }
+
+    /**
+     * Checks whether the application is attached to a terminal, as opposed to having its output redirected.
+     *
+     * @return true if the application is attached to a terminal, false otherwise.
+     */
+    public static boolean isTerminal() {
+        return Terminal.DETECTED;
+    }
+
+    /**
+     * Claims an event for a line to be printed, applying the overflow policy if the queue is full.
+     * The event must be filled in and then {@link #publish(LogEvent) published}.
+     *
+     * @param level         The logging level of the line.
+     * @param policy        What to do if the queue is full.
+     * @param overflowLevel The least severe level that is kept when the policy is {@link OverflowPolicy#DROP_BELOW_LEVEL}.
+     * @return The event to fill in, or null if the line was dropped.
+     */
+    LogEvent claim(LoggingLevel level, OverflowPolicy policy, LoggingLevel overflowLevel) {
+        LogEvent event;
+        while ((event = LogEvent.claim(messages)) == null) {
+            switch (policy) {
+                case DROP_NEWEST -> {
+                    droppedMessages.increment();
+                    return null;
+                }
+                case DROP_OLDEST -> {
+                    LogEvent oldest = LogEvent.take(messages);
+                    if (oldest != null) {
+                        oldest.release();
+                        droppedMessages.increment();
+                    }
+                }
+                case DROP_BELOW_LEVEL -> {
+                    if (level.ordinal() > overflowLevel.ordinal()) {
+                        droppedMessages.increment();
+                        return null;
+                    }
+
+                    awaitPrinter();
+                }
+                case BLOCK -> awaitPrinter();
+                case SYNCHRONOUS -> flush();
+            }
+        }
+
+        return event;
+    }
+
+    /**
+     * Queues a claimed event to be printed, once it has been filled in.
+     *
+     * @param event The event returned by {@link #claim(LoggingLevel, OverflowPolicy, LoggingLevel)}.
+     */
+    void publish(LogEvent event) {
+        event.publish();
+        if (!running) {
+            flush();
+        } else if (waiting) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Prints every queued line on the calling thread.
+     */
+    public void flush() {
+        printLock.lock();
+        try {
+            printPending();
+        } finally {
+            printLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of lines that were not printed because the queue was full.
+     *
+     * @return The number of dropped lines.
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.sum();
+    }
+
+    /**
+     * Prints every queued line and stops the printing thread. Lines queued after this are printed on the logging thread.
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        flush();
+    }
+
+    private void awaitPrinter() {
+        // Once the printing thread has stopped, nothing else makes room in the queue
+        if (!running) {
+            flush();
+            return;
+        }
+
+        LockSupport.unpark(thread);
+        LockSupport.parkNanos(OVERFLOW_PARK_NANOS);
+    }
+
+    private void run() {
+        while (running) {
+            if (messages.isEmpty()) {
+                // Recheck after announcing that we are waiting, so a line queued in between is never missed
+                waiting = true;
+                if (messages.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+
+                waiting = false;
+                continue;
+            }
+
+            try {
+                flush();
+            } catch (RuntimeException exception) {
+                // Keep printing, or every later line would be lost and blocked loggers would never wake up
+                System.err.println("Failed to print log messages: " + exception.getMessage());
+            }
+        }
+    }
+
+    private void printPending() {
+        if (messages.isEmpty() && droppedMessages.sum() == reportedDroppedMessages)
+            return;
+
+        Charset charset = System.out.charset();
+        if (encoder == null || !encoder.charset().equals(charset)) {
+            useCharset(charset);
+        }
+
+        BatchEncoder encoder = this.encoder;
+        encoder.begin(out);
+        try {
+            // Print at most one queue's worth, so a steady stream of new lines can't keep a batch going forever
+            LogEvent event;
+            for (int i = messages.capacity(); i > 0 && (event = LogEvent.take(messages)) != null; i--) {
+                StringBuilder line = this.line;
+                try {
+                    try {
+                        event.logger.render(event, line);
+                    } catch (RuntimeException exception) {
+                        line.setLength(0);
+                        DefaultLogger.appendRenderFailure(line, exception);
+                    }
+
+                    boolean colored = event.logger.isConsoleColored();
+                    encoder.append(colored ? prefixes[event.level.ordinal()] : PLAIN_PREFIX);
+                    encoder.append(line);
+                    encoder.append(colored ? suffix : plainSuffix);
+                } finally {
+                    line.setLength(0);
+                    event.release();
+                }
+            }
+
+            if (line.capacity() > MAX_RETAINED_LINE) {
+                line.trimToSize();
+            }
+
+            long dropped = droppedMessages.sum();
+            if (dropped > reportedDroppedMessages) {
+                // The dropped lines may belong to loggers with different colour modes, so the summary is always plain
+                encoder.append((dropped - reportedDroppedMessages) + " console messages were dropped because the console could not keep up");
+                encoder.append(plainSuffix);
+                reportedDroppedMessages = dropped;
+            }
+
+            encoder.end();
+            System.out.flush();
+        } catch (IOException exception) {
+            System.err.println("Failed to print log messages: " + exception.getMessage());
+        }
+    }
+
+    private void useCharset(Charset charset) {
+        this.encoder = new BatchEncoder(charset);
+        for (int i = 0; i < PREFIXES.length; i++) {
+            this.prefixes[i] = PREFIXES[i].getBytes(charset);
+        }
+
+        this.suffix = SUFFIX.getBytes(charset);
+        this.plainSuffix = System.lineSeparator().getBytes(charset);
+    }
+
+    private void writeToStandardOut(ByteBuffer bytes) {
+        // Read System.out on every write, so lines follow it if it is replaced
+        PrintStream stream = System.out;
+        stream.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+        bytes.position(bytes.limit());
+    }
+
+    /**
+     * Whether standard output is attached to a terminal, detected the first time it is needed.
+     */
+    private static final class Terminal {
+        private static final boolean DETECTED = detect();
+
+        private static boolean detect() {
+            // Jansi creates its streams once, in the mode set at that time, and loggers install them in passthrough mode
+            System.setProperty("jansi.passthrough", "true");
+
+            // Jansi checks standard output itself, unlike System.console(), which needs standard input to be a terminal
+            // as well, and from Java 22 onwards returns a console even when the output is redirected
+            AnsiType type = AnsiConsole.out().getType();
+            if (type == AnsiType.Unsupported)
+                return System.console() != null; // Jansi's native library is unavailable, so fall back to the JDK's guess
+
+            return type != AnsiType.Redirected;
+        }
+    }
+}
@@ -1,46 +1,58 @@
 package dev.railroadide.logger.impl;
 
 import com.google.gson.*;
+import dev.railroadide.logger.ColorMode;
 import dev.railroadide.logger.Logger;
 import dev.railroadide.logger.LoggerManager;
 import dev.railroadide.logger.LoggingLevel;
-import dev.railroadide.logger.util.VariableRateScheduler;
+import dev.railroadide.logger.OverflowPolicy;
+import dev.railroadide.logger.RateLimitedLogger;
+import dev.railroadide.logger.RotationInterval;
+import dev.railroadide.logger.util.ArgumentSnapshotPolicy;
+import dev.railroadide.logger.util.FlushPolicy;
+import dev.railroadide.logger.util.LogClock;
+import dev.railroadide.logger.util.MessageTemplate;
+import dev.railroadide.logger.util.RateLimiters;
+import dev.railroadide.logger.util.RingBuffer;
+import dev.railroadide.logger.util.ThrowableRenderer;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.concurrent.BasicThreadFactory;
-import org.fusesource.jansi.Ansi;
 import org.fusesource.jansi.AnsiConsole;
 
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static org.fusesource.jansi.Ansi.Color.*;
-import static org.fusesource.jansi.Ansi.ansi;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 // TODO: Add support for logging to a remote server (?)
 // TODO: Add support for uploading a log file to a remote server (e.g., for bug reports)
 // TODO: Add everything else to the config file
 public class DefaultLogger implements Logger {
-    private static final String BRACE_REGEX = "(?<!\\\\)\\{}";
-    private final Queue<String> loggingMessages = new ConcurrentLinkedQueue<>();
-    private final VariableRateScheduler scheduler = new VariableRateScheduler(Executors.newSingleThreadScheduledExecutor(new BasicThreadFactory.Builder().daemon(true).build()));
+    private volatile RingBuffer<LogEvent> loggingMessages;
+    private final AtomicLong queueHighWaterMark = new AtomicLong();
+    private final LongAdder droppedMessages = new LongAdder();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private long reportedDroppedMessages;
+    private volatile List<LogFileSink> logFileSinks = List.of();
+    private int resolvedLogFiles;
+    private final AtomicLong flushDeadline = new AtomicLong(NO_FLUSH_DEADLINE);
+    private final AtomicLong pendingBytes = new AtomicLong();
+    // The current flush interval in nanoseconds, or 0 to use the log frequency
+    private volatile long flushInterval;
+    private volatile Thread dispatcherThread;
+    private boolean ansiInstalled;
 
     @Getter
     private final String name;
@@ -56,7 +68,6 @@ public class DefaultLogger implements Logger {
     private boolean isCompressionEnabled = true;
 
     @Getter
-    @Setter
     private long logFrequency;
 
     @Getter
@@ -71,15 +82,76 @@ public class DefaultLogger implements Logger {
     @Setter
     private LoggingLevel loggingLevel;
 
+    @Setter
+    private LoggingLevel fileLoggingLevel;
+
     @Getter
     @Setter
     private Path configFile;
 
+    private volatile LogLayout loggingLayout;
+
+    @Getter
+    @Setter
+    private LogClock clock;
+
+    @Getter
+    @Setter
+    private OverflowPolicy overflowPolicy;
+
+    @Getter
+    @Setter
+    private LoggingLevel overflowLevel;
+
+    @Getter
+    @Setter
+    private OverflowPolicy consoleOverflowPolicy;
+
+    @Getter
+    @Setter
+    private ColorMode colorMode;
+
+    @Getter
+    @Setter
+    private FlushPolicy flushPolicy;
+
+    @Getter
+    @Setter
+    private boolean deferFormatting;
+
     @Getter
     @Setter
-    private String loggingLayout;
+    private ArgumentSnapshotPolicy argumentSnapshotPolicy;
+
+    @Getter
+    @Setter
+    private ThrowableRenderer throwableRenderer;
+
+    @Getter
+    @Setter
+    private long rotationMaxSize;
+
+    @Getter
+    @Setter
+    private RotationInterval rotationInterval;
+
+    @Getter
+    private long duplicateSuppressionWindow;
+
+    @Getter
+    private int duplicateSuppressionThreshold;
+
+    @Getter
+    private int duplicateSuppressionFrames;
+
+    private volatile DuplicateSuppressor duplicateSuppressor;
+    private final RateLimiters rateLimiters = new RateLimiters();
+    private volatile boolean closing;
+
+    static final long NO_FLUSH_DEADLINE = Long.MIN_VALUE;
 
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final long OVERFLOW_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
 
     DefaultLogger(String name, DateTimeFormatter logDateFormat) {
         this.name = name;
@@ -88,10 +160,6 @@ public class DefaultLogger implements Logger {
 
     @Override
     public void init() {
-        System.setProperty("jansi.passthrough", "true");
-        AnsiConsole.systemInstall();
-
-        beginWriteScheduling();
         try {
             if (Files.notExists(this.configFile)) {
                 Files.writeString(this.configFile, GSON.toJson(toJson()), StandardOpenOption.CREATE_NEW);
@@ -102,58 +170,463 @@ public class DefaultLogger implements Logger {
         } catch (IOException exception) {
             throw new RuntimeException("An error has occurred loading the config file", exception);
         }
+
+        // Colours are the only reason to install Jansi, so plain output skips it altogether
+        if (isConsoleColored()) {
+            System.setProperty("jansi.passthrough", "true");
+            AnsiConsole.systemInstall();
+            this.ansiInstalled = true;
+        }
+
+        LoggerManager.getDispatcher().register(this);
     }
 
     @Override
     public void log(String message, LoggingLevel level, Object... objects) {
-        Ansi.Color logColor = switch (level) {
-            case ERROR -> RED;
-            case WARN -> YELLOW;
-            case INFO -> GREEN;
-            case DEBUG -> BLUE;
-            default -> WHITE;
-        };
+        if (!isEnabled(level))
+            return;
 
         if (message == null || message.isEmpty())
             return;
 
-        long bracesCount = Pattern.compile(BRACE_REGEX).matcher(message).results().count();
+        MessageTemplate template = MessageTemplate.of(message);
+        int bracesCount = template.getPlaceholderCount();
+        DuplicateSuppressor suppressor = this.duplicateSuppressor;
+        if (suppressor != null && !suppressor.admit(message, level, objects, bracesCount)) {
+            // Make sure the writer comes back to summarise the suppressed messages, even if nothing else is logged
+            scheduleFlush(suppressor.getWindow());
+            return;
+        }
+
+        long timestamp = this.clock.currentTimeNanos();
+        String threadName = Thread.currentThread().getName();
 
-        List<Throwable> throwables = new ArrayList<>();
-        for (int i = 0; i < objects.length; i++) {
-            Object object = objects[i];
-            // We check if the last object is a throwable and skip replacement if so.
+        FormatContext context = FormatContext.acquire();
+        try {
+            StringBuilder formattedMessage = null;
+            Object[] arguments = null;
+            int argumentCount = 0;
+            if (this.deferFormatting) {
+                // Only capture the arguments here, and leave the rendering to the thread that writes the message
+                argumentCount = Math.min(bracesCount, objects.length);
+                arguments = snapshotArguments(context, objects, argumentCount);
+            } else {
+                formattedMessage = template.render(context.message(), objects, objects.length);
+            }
+
+            if (level.ordinal() <= this.loggingLevel.ordinal()) {
+                ConsoleSink console = LoggerManager.getConsoleSink();
+                LogEvent event = console.claim(level, this.consoleOverflowPolicy, this.overflowLevel);
+                if (event != null) {
+                    fill(event, level, timestamp, threadName, formattedMessage, template, arguments, argumentCount, objects, bracesCount);
+                    console.publish(event);
+                }
+            }
+
+            if (level.ordinal() <= getFileLoggingLevel().ordinal()) {
+                LogEvent event = claim(level);
+                if (event != null) {
+                    fill(event, level, timestamp, threadName, formattedMessage, template, arguments, argumentCount, objects, bracesCount);
+                    publish(event);
+                }
+            }
+        } finally {
+            context.release();
+        }
+    }
+
+    private Object[] snapshotArguments(FormatContext context, Object[] objects, int count) {
+        Object[] arguments = context.arguments(count);
+        ArgumentSnapshotPolicy snapshotPolicy = this.argumentSnapshotPolicy;
+        for (int i = 0; i < count; i++) {
+            arguments[i] = snapshotPolicy.snapshot(objects[i]);
+        }
+
+        return arguments;
+    }
+
+    @Override
+    public Logger rateLimited(Object key, int permits, Duration period) {
+        // Keep our own rate limiters rather than going through the shared, synchronized ones of the default
+        return new RateLimitedLogger(this, this.rateLimiters.get(key, permits, period));
+    }
+
+    private void fill(LogEvent event, LoggingLevel level, long timestamp, String threadName, StringBuilder message,
+                      MessageTemplate template, Object[] arguments, int argumentCount, Object[] objects, int bracesCount) {
+        event.logger = this;
+        event.level = level;
+        event.timestamp = timestamp;
+        event.threadName = threadName;
+        if (message != null) {
+            event.setMessage(message);
+        } else {
+            event.setTemplate(template, arguments, argumentCount);
+        }
+
+        for (int i = bracesCount; i < objects.length; i++) {
+            // We check if the trailing objects are throwables and skip replacement if so.
             // This is to allow for cases such as: LOGGER.error("Failed to compress log file {}", exception, exception);
-            if (object instanceof Throwable throwable && i >= bracesCount) {
-                throwables.add(throwable);
-                continue;
+            if (objects[i] instanceof Throwable throwable) {
+                event.throwables().add(throwable);
+            }
+        }
+    }
+
+    /**
+     * Renders the full log line of an event, including the stack traces of its throwables, as called by the threads
+     * that write the event.
+     *
+     * @param event   The event to render.
+     * @param builder The builder to append to.
+     */
+    void render(LogEvent event, StringBuilder builder) {
+        this.loggingLayout.render(builder, event.timestamp, event.threadName, event.level, this.name, event.message());
+
+        List<Throwable> throwables = event.throwables();
+        for (int i = 0; i < throwables.size(); i++) {
+            builder.append("\n");
+            this.throwableRenderer.render(throwables.get(i), builder);
+        }
+    }
+
+    /**
+     * Appends a placeholder for a log line that could not be rendered, such as when an argument's or a throwable's
+     * {@code toString()} throws. The writing threads use this so that one broken message doesn't take the rest of
+     * the output down with it.
+     *
+     * @param builder   The builder to append to.
+     * @param exception The exception that was thrown while rendering.
+     */
+    static void appendRenderFailure(StringBuilder builder, RuntimeException exception) {
+        builder.append("<failed to render: ").append(exception.getClass().getName());
+        try {
+            String message = exception.getMessage();
+            if (message != null) {
+                builder.append(": ").append(message);
+            }
+        } catch (RuntimeException ignored) {}
+
+        builder.append('>');
+    }
+
+    private LogEvent claim(LoggingLevel level) {
+        RingBuffer<LogEvent> buffer = this.loggingMessages;
+        LogEvent event;
+        while ((event = LogEvent.claim(buffer)) == null) {
+            switch (this.overflowPolicy) {
+                case DROP_NEWEST -> {
+                    droppedMessages.increment();
+                    return null;
+                }
+                case DROP_OLDEST -> {
+                    LogEvent oldest = LogEvent.take(buffer);
+                    if (oldest != null) {
+                        pendingBytes.addAndGet(-oldest.length());
+                        oldest.release();
+                        droppedMessages.increment();
+                    }
+                }
+                case DROP_BELOW_LEVEL -> {
+                    if (level.ordinal() > this.overflowLevel.ordinal()) {
+                        droppedMessages.increment();
+                        return null;
+                    }
+
+                    awaitWriter();
+                }
+                case BLOCK -> awaitWriter();
+                case SYNCHRONOUS -> flush();
+            }
+        }
+
+        return event;
+    }
+
+    private void publish(LogEvent event) {
+        // The writer may take and clear the event as soon as it is published
+        LoggingLevel level = event.level;
+        int length = event.length();
+        RingBuffer<LogEvent> buffer = event.source;
+        event.publish();
+
+        int depth = buffer.size();
+        if (depth > queueHighWaterMark.get()) {
+            queueHighWaterMark.accumulateAndGet(depth, Math::max);
+        }
+
+        long bytes = pendingBytes.addAndGet(length);
+        // Without writer threads after shutdown, nothing else would write the message, so write it here like the console does
+        if (this.dispatcherThread == null && LoggerManager.isShutDown()) {
+            flush();
+            return;
+        }
+
+        scheduleFlush(this.flushPolicy.flushDelay(level, depth, bytes, getFlushInterval()));
+    }
+
+    /**
+     * Arms the flush deadline, or moves it earlier if it is already armed for later, and wakes the writer thread so
+     * that it can wait for it.
+     *
+     * @param delay The time in nanoseconds until the logger must be flushed.
+     */
+    private void scheduleFlush(long delay) {
+        long deadline = System.nanoTime() + delay;
+        while (true) {
+            long current = flushDeadline.get();
+            if (current != NO_FLUSH_DEADLINE && current - deadline <= 0)
+                return;
+
+            if (flushDeadline.compareAndSet(current, deadline)) {
+                wakeDispatcher();
+                return;
             }
+        }
+    }
+
+    private long getFlushInterval() {
+        long interval = this.flushInterval;
+        return interval > 0 ? interval : TimeUnit.MILLISECONDS.toNanos(this.logFrequency);
+    }
+
+    /**
+     * Waits a little for the writer thread to make room in the queue. If no writer thread is attached, as before
+     * {@link #init()} or after {@link #close()}, nothing would ever make room, so the queue is written out on the
+     * calling thread instead.
+     */
+    private void awaitWriter() {
+        if (this.dispatcherThread == null) {
+            flush();
+            return;
+        }
+
+        requestFlush();
+        LockSupport.parkNanos(OVERFLOW_PARK_NANOS);
+    }
+
+    /**
+     * Asks the writer thread to flush this logger as soon as possible.
+     */
+    private void requestFlush() {
+        flushDeadline.set(System.nanoTime());
+        wakeDispatcher();
+    }
+
+    private void wakeDispatcher() {
+        Thread thread = this.dispatcherThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    long getFlushDeadline() {
+        return flushDeadline.get();
+    }
+
+    void setDispatcherThread(Thread dispatcherThread) {
+        this.dispatcherThread = dispatcherThread;
+    }
+
+    void disarmFlush() {
+        flushDeadline.set(NO_FLUSH_DEADLINE);
+    }
 
-            message = message.replaceFirst(BRACE_REGEX, Matcher.quoteReplacement(Objects.toString(object)));
+    void rearmIfPending() {
+        if (!this.loggingMessages.isEmpty()) {
+            flushDeadline.compareAndSet(NO_FLUSH_DEADLINE, System.nanoTime());
+            return;
+        }
+
+        DuplicateSuppressor suppressor = this.duplicateSuppressor;
+        if (suppressor != null) {
+            long deadline = suppressor.nextSummaryDeadline();
+            if (deadline != NO_FLUSH_DEADLINE) {
+                flushDeadline.compareAndSet(NO_FLUSH_DEADLINE, deadline);
+            }
         }
+    }
+
+    /**
+     * Takes up to one queue's worth of pending events into the batch, followed by a summary event if any messages
+     * were dropped since the last drain. Draining at most one queue's worth means a steady stream of new messages can't
+     * keep a flush going forever. Each event must be {@link LogEvent#release() released} once it has been written.
+     *
+     * @param batch The batch to add the events to.
+     */
+    void drainTo(List<LogEvent> batch) {
+        drainLock.lock();
+        try {
+            RingBuffer<LogEvent> buffer = this.loggingMessages;
+            LogEvent event;
+            int messages = 0;
+            long bytes = 0;
+            for (int i = buffer.capacity(); i > 0 && (event = LogEvent.take(buffer)) != null; i--) {
+                batch.add(event);
+                messages++;
+                bytes += event.length();
+            }
 
-        String messaage = arrangeMessage(level, message);
+            pendingBytes.addAndGet(-bytes);
+            if (messages > 0) {
+                this.flushInterval = this.flushPolicy.nextInterval(getFlushInterval(), messages, bytes);
+            }
 
-        StringBuilder messageBuilder = new StringBuilder(messaage);
+            long dropped = droppedMessages.sum();
+            if (dropped > reportedDroppedMessages) {
+                batch.add(fillSummary(new LogEvent(), LoggingLevel.WARN, (dropped - reportedDroppedMessages) + " log messages were dropped because the log queue was full"));
+                reportedDroppedMessages = dropped;
+            }
 
-        for (Throwable throwable : throwables) {
-            var stringWriter = new StringWriter();
-            try (var printWriter = new PrintWriter(stringWriter)) {
-                throwable.printStackTrace(printWriter);
+            DuplicateSuppressor suppressor = this.duplicateSuppressor;
+            if (suppressor != null) {
+                suppressor.drainSummaries(this.closing, (level, message) -> {
+                    if (level.ordinal() <= this.loggingLevel.ordinal()) {
+                        // The writer must never wait on the console, so the summary is dropped if the console is behind
+                        ConsoleSink console = LoggerManager.getConsoleSink();
+                        LogEvent consoleEvent = console.claim(level, OverflowPolicy.DROP_NEWEST, level);
+                        if (consoleEvent != null) {
+                            fillSummary(consoleEvent, level, message);
+                            console.publish(consoleEvent);
+                        }
+                    }
+
+                    if (level.ordinal() <= getFileLoggingLevel().ordinal()) {
+                        batch.add(fillSummary(new LogEvent(), level, message));
+                    }
+                });
             }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private LogEvent fillSummary(LogEvent event, LoggingLevel level, String message) {
+        // Summaries are rare, so the ones written to the files get their own events rather than slots in the queue
+        event.logger = this;
+        event.level = level;
+        event.timestamp = this.clock.currentTimeNanos();
+        event.threadName = Thread.currentThread().getName();
+        event.setMessage(message);
+        return event;
+    }
 
-            String fullTrace = stringWriter.toString();
-            messageBuilder.append("\n").append(fullTrace);
+    /**
+     * Checks whether this logger's console output is coloured, resolving {@link ColorMode#AUTO} by whether the
+     * application is attached to a terminal.
+     *
+     * @return true if the console output is coloured, false otherwise.
+     */
+    boolean isConsoleColored() {
+        return switch (this.colorMode) {
+            case ALWAYS -> true;
+            case NEVER -> false;
+            case AUTO -> ConsoleSink.isTerminal();
+        };
+    }
+
+    /**
+     * Checks whether this logger's log files are rotated while the application runs.
+     *
+     * @return true if the log files are rotated by size or time, false otherwise.
+     */
+    boolean isRotating() {
+        return this.rotationMaxSize > 0 || this.rotationInterval != RotationInterval.NONE;
+    }
+
+    /**
+     * Gets the shared sinks of this logger's log files, looking up any files added since the last call.
+     *
+     * @return The sinks of this logger's log files.
+     */
+    List<LogFileSink> getLogFileSinks() {
+        List<Path> files = this.filesToLogTo;
+        if (resolvedLogFiles == files.size())
+            return this.logFileSinks;
+
+        List<LogFileSink> sinks = new ArrayList<>();
+        for (Path file : files) {
+            LogFileSink sink = LoggerManager.getFileSink(file);
+            if (!sinks.contains(sink)) {
+                sinks.add(sink);
+            }
         }
 
-        message = messageBuilder.toString();
+        this.logFileSinks = sinks;
+        this.resolvedLogFiles = files.size();
+        return sinks;
+    }
+
+    /**
+     * Gets the capacity of the queue that holds messages waiting to be written to the log files.
+     *
+     * @return The queue capacity.
+     */
+    public int getQueueCapacity() {
+        return this.loggingMessages.capacity();
+    }
 
-        int logLevel = this.loggingLevel.ordinal();
-        if (level.ordinal() <= logLevel) {
-            System.out.println(ansi().eraseLine().fg(logColor).a(message).reset());
+    /**
+     * Sets the capacity of the queue that holds messages waiting to be written to the log files.
+     * The capacity is rounded up to the next power of two. Messages already queued are moved to the new queue, so this
+     * should be called before the logger is in heavy use.
+     *
+     * @param capacity The queue capacity.
+     */
+    public void setQueueCapacity(int capacity) {
+        RingBuffer<LogEvent> previous = this.loggingMessages;
+        if (previous != null && previous.capacity() == RingBuffer.roundUpCapacity(capacity))
+            return;
+
+        var buffer = new RingBuffer<LogEvent>(capacity, LogEvent::new);
+        this.loggingMessages = buffer;
+        if (previous == null)
+            return;
+
+        LogEvent event;
+        while ((event = LogEvent.take(previous)) != null) {
+            LogEvent copy = LogEvent.claim(buffer);
+            if (copy != null) {
+                copy.copyFrom(event);
+                copy.publish();
+            } else {
+                pendingBytes.addAndGet(-event.length());
+                droppedMessages.increment();
+            }
+
+            event.release();
         }
+    }
 
-        loggingMessages.offer(message);
+    /**
+     * Gets the number of messages currently waiting to be written to the log files.
+     *
+     * @return The queue depth.
+     */
+    public int getQueueDepth() {
+        return this.loggingMessages.size();
+    }
+
+    /**
+     * Gets the highest number of messages that have been waiting to be written to the log files at once.
+     *
+     * @return The queue high-water mark.
+     */
+    public long getQueueHighWaterMark() {
+        return queueHighWaterMark.get();
+    }
+
+    /**
+     * Gets the number of messages that were not written to the log files because the queue was full.
+     *
+     * @return The number of dropped messages.
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.sum();
+    }
+
+    @Override
+    public LoggingLevel getFileLoggingLevel() {
+        return this.fileLoggingLevel != null ? this.fileLoggingLevel : this.loggingLevel;
     }
 
     private JsonObject toJson() {
@@ -170,7 +643,21 @@ public class DefaultLogger implements Logger {
         jsonObject.addProperty("DeletionFrequency", deletionFrequency);
         jsonObject.addProperty("LogDirectory", logDirectory.toString());
         jsonObject.addProperty("LoggingLevel", loggingLevel.name());
-        jsonObject.addProperty("LoggingLayout", loggingLayout);
+        if (fileLoggingLevel != null) {
+            jsonObject.addProperty("FileLoggingLevel", fileLoggingLevel.name());
+        }
+        jsonObject.addProperty("LoggingLayout", getLoggingLayout());
+        jsonObject.addProperty("QueueCapacity", getQueueCapacity());
+        jsonObject.addProperty("OverflowPolicy", overflowPolicy.name());
+        jsonObject.addProperty("OverflowLevel", overflowLevel.name());
+        jsonObject.addProperty("ConsoleOverflowPolicy", consoleOverflowPolicy.name());
+        jsonObject.addProperty("ColorMode", colorMode.name());
+        jsonObject.addProperty("DeferFormatting", deferFormatting);
+        jsonObject.addProperty("RotationMaxSize", rotationMaxSize);
+        jsonObject.addProperty("RotationInterval", rotationInterval.name());
+        jsonObject.addProperty("DuplicateSuppressionWindow", duplicateSuppressionWindow);
+        jsonObject.addProperty("DuplicateSuppressionThreshold", duplicateSuppressionThreshold);
+        jsonObject.addProperty("DuplicateSuppressionFrames", duplicateSuppressionFrames);
         return jsonObject;
     }
 
@@ -184,7 +671,10 @@ public class DefaultLogger implements Logger {
                 JsonArray filesArray = filesToLogToElement.getAsJsonArray();
                 for (JsonElement fileElement : filesArray) {
                     if (fileElement.isJsonPrimitive() && fileElement.getAsJsonPrimitive().isString()) {
-                        this.filesToLogTo.add(Path.of(fileElement.getAsString()));
+                        Path file = Path.of(fileElement.getAsString());
+                        if (!this.filesToLogTo.contains(file)) {
+                            this.filesToLogTo.add(file);
+                        }
                     }
                 }
             }
@@ -205,7 +695,7 @@ public class DefaultLogger implements Logger {
             if (logFrequencyElement.isJsonPrimitive()) {
                 JsonPrimitive logFrequencyPrimitive = logFrequencyElement.getAsJsonPrimitive();
                 if (logFrequencyPrimitive.isNumber()) {
-                    this.logFrequency = logFrequencyElement.getAsLong();
+                    setLogFrequency(logFrequencyElement.getAsLong());
                 }
             }
         }
@@ -245,55 +735,189 @@ public class DefaultLogger implements Logger {
             }
         }
 
+        if (json.has("FileLoggingLevel")) {
+            JsonElement fileLoggingLevelElement = json.get("FileLoggingLevel");
+            if (fileLoggingLevelElement.isJsonPrimitive()) {
+                JsonPrimitive fileLoggingLevelPrimitive = fileLoggingLevelElement.getAsJsonPrimitive();
+                if (fileLoggingLevelPrimitive.isString()) {
+                    try {
+                        this.fileLoggingLevel = LoggingLevel.valueOf(fileLoggingLevelElement.getAsString().toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid file logging level in config file: " + fileLoggingLevelElement.getAsString());
+                        this.fileLoggingLevel = null; // Default to the console logging level if invalid
+                    }
+                }
+            }
+        }
+
         if (json.has("LoggingLayout")) {
             JsonElement loggingLayoutElement = json.get("LoggingLayout");
             if (loggingLayoutElement.isJsonPrimitive()) {
                 JsonPrimitive loggingLayoutPrimitive = loggingLayoutElement.getAsJsonPrimitive();
                 if (loggingLayoutPrimitive.isString()) {
-                    this.loggingLayout = loggingLayoutElement.getAsString();
+                    setLoggingLayout(loggingLayoutElement.getAsString());
                 }
             }
         }
-    }
 
-    private String arrangeMessage(LoggingLevel level, String message) {
-        LocalTime localTime = LocalTime.now();
+        if (json.has("QueueCapacity")) {
+            JsonElement queueCapacityElement = json.get("QueueCapacity");
+            if (queueCapacityElement.isJsonPrimitive()) {
+                JsonPrimitive queueCapacityPrimitive = queueCapacityElement.getAsJsonPrimitive();
+                if (queueCapacityPrimitive.isNumber()) {
+                    try {
+                        setQueueCapacity(queueCapacityElement.getAsInt());
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid queue capacity in config file: " + queueCapacityElement.getAsString());
+                    }
+                }
+            }
+        }
+
+        if (json.has("OverflowPolicy")) {
+            JsonElement overflowPolicyElement = json.get("OverflowPolicy");
+            if (overflowPolicyElement.isJsonPrimitive()) {
+                JsonPrimitive overflowPolicyPrimitive = overflowPolicyElement.getAsJsonPrimitive();
+                if (overflowPolicyPrimitive.isString()) {
+                    try {
+                        this.overflowPolicy = OverflowPolicy.valueOf(overflowPolicyElement.getAsString().toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid overflow policy in config file: " + overflowPolicyElement.getAsString());
+                    }
+                }
+            }
+        }
+
+        if (json.has("OverflowLevel")) {
+            JsonElement overflowLevelElement = json.get("OverflowLevel");
+            if (overflowLevelElement.isJsonPrimitive()) {
+                JsonPrimitive overflowLevelPrimitive = overflowLevelElement.getAsJsonPrimitive();
+                if (overflowLevelPrimitive.isString()) {
+                    try {
+                        this.overflowLevel = LoggingLevel.valueOf(overflowLevelElement.getAsString().toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid overflow level in config file: " + overflowLevelElement.getAsString());
+                    }
+                }
+            }
+        }
+
+        if (json.has("ConsoleOverflowPolicy")) {
+            JsonElement consoleOverflowPolicyElement = json.get("ConsoleOverflowPolicy");
+            if (consoleOverflowPolicyElement.isJsonPrimitive()) {
+                JsonPrimitive consoleOverflowPolicyPrimitive = consoleOverflowPolicyElement.getAsJsonPrimitive();
+                if (consoleOverflowPolicyPrimitive.isString()) {
+                    try {
+                        this.consoleOverflowPolicy = OverflowPolicy.valueOf(consoleOverflowPolicyElement.getAsString().toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid console overflow policy in config file: " + consoleOverflowPolicyElement.getAsString());
+                    }
+                }
+            }
+        }
+
+        if (json.has("ColorMode")) {
+            JsonElement colorModeElement = json.get("ColorMode");
+            if (colorModeElement.isJsonPrimitive()) {
+                JsonPrimitive colorModePrimitive = colorModeElement.getAsJsonPrimitive();
+                if (colorModePrimitive.isString()) {
+                    try {
+                        this.colorMode = ColorMode.valueOf(colorModeElement.getAsString().toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid color mode in config file: " + colorModeElement.getAsString());
+                    }
+                }
+            }
+        }
 
-        Map<String, Object> hashMap = new HashMap<>();
-        hashMap.put("{hours}", StringUtils.leftPad(String.valueOf(localTime.getHour()), 2, '0'));
-        hashMap.put("{minutes}", StringUtils.leftPad(String.valueOf(localTime.getMinute()), 2, '0'));
-        hashMap.put("{seconds}", StringUtils.leftPad(String.valueOf(localTime.getSecond()), 2, '0'));
-        hashMap.put("{milliseconds}", StringUtils.leftPad(String.valueOf(localTime.getNano() / 1_000_000), 4, '0'));
-        hashMap.put("{nanoseconds}", StringUtils.leftPad(String.valueOf(localTime.getNano()), 7, '0'));
+        if (json.has("DeferFormatting")) {
+            JsonElement deferFormattingElement = json.get("DeferFormatting");
+            if (deferFormattingElement.isJsonPrimitive()) {
+                JsonPrimitive deferFormattingPrimitive = deferFormattingElement.getAsJsonPrimitive();
+                if (deferFormattingPrimitive.isBoolean()) {
+                    this.deferFormatting = deferFormattingElement.getAsBoolean();
+                }
+            }
+        }
+
+        if (json.has("RotationMaxSize")) {
+            JsonElement rotationMaxSizeElement = json.get("RotationMaxSize");
+            if (rotationMaxSizeElement.isJsonPrimitive()) {
+                JsonPrimitive rotationMaxSizePrimitive = rotationMaxSizeElement.getAsJsonPrimitive();
+                if (rotationMaxSizePrimitive.isNumber()) {
+                    this.rotationMaxSize = rotationMaxSizeElement.getAsLong();
+                }
+            }
+        }
+
+        if (json.has("RotationInterval")) {
+            JsonElement rotationIntervalElement = json.get("RotationInterval");
+            if (rotationIntervalElement.isJsonPrimitive()) {
+                JsonPrimitive rotationIntervalPrimitive = rotationIntervalElement.getAsJsonPrimitive();
+                if (rotationIntervalPrimitive.isString()) {
+                    try {
+                        this.rotationInterval = RotationInterval.valueOf(rotationIntervalElement.getAsString().toUpperCase(Locale.ROOT));
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Invalid rotation interval in config file: " + rotationIntervalElement.getAsString());
+                    }
+                }
+            }
+        }
 
-        hashMap.put("{threadName}", Thread.currentThread().getName());
-        hashMap.put("{loggingLevelName}", level.name());
-        hashMap.put("{loggerName}", this.name);
-        hashMap.put("{message}", message);
+        if (json.has("DuplicateSuppressionWindow")) {
+            JsonElement duplicateSuppressionWindowElement = json.get("DuplicateSuppressionWindow");
+            if (duplicateSuppressionWindowElement.isJsonPrimitive()) {
+                JsonPrimitive duplicateSuppressionWindowPrimitive = duplicateSuppressionWindowElement.getAsJsonPrimitive();
+                if (duplicateSuppressionWindowPrimitive.isNumber()) {
+                    setDuplicateSuppressionWindow(duplicateSuppressionWindowElement.getAsLong());
+                }
+            }
+        }
 
-        String logMessage = loggingLayout;
+        if (json.has("DuplicateSuppressionThreshold")) {
+            JsonElement duplicateSuppressionThresholdElement = json.get("DuplicateSuppressionThreshold");
+            if (duplicateSuppressionThresholdElement.isJsonPrimitive()) {
+                JsonPrimitive duplicateSuppressionThresholdPrimitive = duplicateSuppressionThresholdElement.getAsJsonPrimitive();
+                if (duplicateSuppressionThresholdPrimitive.isNumber()) {
+                    setDuplicateSuppressionThreshold(duplicateSuppressionThresholdElement.getAsInt());
+                }
+            }
+        }
 
-        for (Map.Entry<String, Object> entry : hashMap.entrySet()) {
-            logMessage = logMessage.replace(entry.getKey(), Objects.toString(entry.getValue()));
+        if (json.has("DuplicateSuppressionFrames")) {
+            JsonElement duplicateSuppressionFramesElement = json.get("DuplicateSuppressionFrames");
+            if (duplicateSuppressionFramesElement.isJsonPrimitive()) {
+                JsonPrimitive duplicateSuppressionFramesPrimitive = duplicateSuppressionFramesElement.getAsJsonPrimitive();
+                if (duplicateSuppressionFramesPrimitive.isNumber()) {
+                    setDuplicateSuppressionFrames(duplicateSuppressionFramesElement.getAsInt());
+                }
+            }
         }
+    }
 
-        return logMessage;
+    @Override
+    public String getLoggingLayout() {
+        return this.loggingLayout.getPattern();
+    }
+
+    @Override
+    public void setLoggingLayout(String loggingLayout) {
+        // Compile before publishing so that logging threads only ever see a complete layout
+        this.loggingLayout = LogLayout.compile(loggingLayout);
     }
 
     @Override
     public void close() {
-        try {
+        if (this.ansiInstalled) {
             AnsiConsole.systemUninstall();
-            scheduler.shutdown();
-
-            String logText = String.join("\n", loggingMessages);
-            loggingMessages.clear();
-            for (Path logFile : this.filesToLogTo) {
-                Files.writeString(logFile, logText + "\n", StandardOpenOption.APPEND, StandardOpenOption.CREATE);
-            }
-        } catch (IOException exception) {
-            System.err.println("Failed to close logger: " + exception.getMessage());
+            this.ansiInstalled = false;
         }
+
+        LoggerManager.getDispatcher().unregister(this);
+        this.closing = true;
+        do {
+            flush();
+        } while (!this.loggingMessages.isEmpty());
     }
 
     @Override
@@ -315,7 +939,58 @@ public class DefaultLogger implements Logger {
         if (frequency <= 0)
             throw new IllegalArgumentException("Log frequency must be greater than 0.");
 
-        this.logFrequency = timeUnit.toMillis(frequency);
+        setLogFrequency(timeUnit.toMillis(frequency));
+    }
+
+    /**
+     * Sets the window in which repeats of the same failure are counted, or 0 to disable duplicate suppression.
+     *
+     * @param window The window in milliseconds.
+     */
+    public void setDuplicateSuppressionWindow(long window) {
+        this.duplicateSuppressionWindow = window;
+        updateDuplicateSuppressor();
+    }
+
+    /**
+     * Sets the number of repeats of the same failure that are logged in full per window, before the rest are only
+     * counted.
+     *
+     * @param threshold The number of repeats logged in full.
+     */
+    public void setDuplicateSuppressionThreshold(int threshold) {
+        this.duplicateSuppressionThreshold = threshold;
+        updateDuplicateSuppressor();
+    }
+
+    /**
+     * Sets the number of top stack frames that are compared to tell repeats of the same failure apart.
+     *
+     * @param frames The number of compared frames.
+     */
+    public void setDuplicateSuppressionFrames(int frames) {
+        this.duplicateSuppressionFrames = frames;
+        updateDuplicateSuppressor();
+    }
+
+    private void updateDuplicateSuppressor() {
+        if (this.duplicateSuppressionWindow <= 0 || this.duplicateSuppressionThreshold < 0 || this.duplicateSuppressionFrames < 0) {
+            this.duplicateSuppressor = null;
+            return;
+        }
+
+        this.duplicateSuppressor = new DuplicateSuppressor(TimeUnit.MILLISECONDS.toNanos(this.duplicateSuppressionWindow),
+                this.duplicateSuppressionThreshold, this.duplicateSuppressionFrames);
+    }
+
+    /**
+     * Sets the frequency at which logs are written to files, and restarts the flush policy from it.
+     *
+     * @param logFrequency The log frequency in milliseconds.
+     */
+    public void setLogFrequency(long logFrequency) {
+        this.logFrequency = logFrequency;
+        this.flushInterval = 0;
     }
 
     @Override
@@ -326,22 +1001,9 @@ public class DefaultLogger implements Logger {
         this.deletionFrequency = timeUnit.toMillis(frequency);
     }
 
-    private void beginWriteScheduling() {
-        scheduler.scheduleAtVariableRate(() -> {
-            if (loggingMessages.isEmpty())
-                return;
-            try {
-                List<String> messageCache = new ArrayList<>(this.loggingMessages);
-                var logText = String.join("\n", messageCache);
-                this.loggingMessages.removeAll(messageCache);
-                for (Path logFile : this.filesToLogTo) {
-                    Files.writeString(logFile, logText + "\n", StandardOpenOption.APPEND, StandardOpenOption.CREATE);
-                }
-            } catch (IOException exception) {
-                System.err.println("Failed to write log messages: " + exception.getMessage());
-                exception.printStackTrace();
-            }
-        }, 0, () -> logFrequency);
+    @Override
+    public void flush() {
+        LoggerManager.getDispatcher().flush(this);
     }
 
     /**
@@ -356,9 +1018,25 @@ public class DefaultLogger implements Logger {
         private long logFrequency = TimeUnit.SECONDS.toMillis(1); // Default to 1 second
         private long deletionFrequency = TimeUnit.DAYS.toMillis(1); // Default to 1 day
         private LoggingLevel loggingLevel = LoggingLevel.DEBUG;
+        private LoggingLevel fileLoggingLevel;
         private boolean logToLatest = true;
         private Path configFile = Path.of("config.json");
         private String loggingLayout = "{hours}:{minutes}:{seconds} [{threadName}] {loggingLevelName} {loggerName} - {message}";
+        private int queueCapacity = 8192;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+        private LoggingLevel overflowLevel = LoggingLevel.WARN;
+        private OverflowPolicy consoleOverflowPolicy = OverflowPolicy.SYNCHRONOUS;
+        private ColorMode colorMode = ColorMode.AUTO;
+        private LogClock clock = LogClock.system();
+        private FlushPolicy flushPolicy = FlushPolicy.fixed();
+        private boolean deferFormatting;
+        private ArgumentSnapshotPolicy argumentSnapshotPolicy = ArgumentSnapshotPolicy.immutableOrString();
+        private ThrowableRenderer throwableRenderer = ThrowableRenderer.defaultRenderer();
+        private long rotationMaxSize;
+        private RotationInterval rotationInterval = RotationInterval.NONE;
+        private long duplicateSuppressionWindow;
+        private int duplicateSuppressionThreshold = 10;
+        private int duplicateSuppressionFrames = 3;
 
         /**
          * Creates a new Builder instance with the specified name.
@@ -481,6 +1159,18 @@ public class DefaultLogger implements Logger {
             return this;
         }
 
+        /**
+         * Sets the logging level for the log files, independently of the console logging level.
+         * If this is not set, the log files use the same level as the console.
+         *
+         * @param fileLoggingLevel The logging level for the log files.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder fileLoggingLevel(LoggingLevel fileLoggingLevel) {
+            this.fileLoggingLevel = fileLoggingLevel;
+            return this;
+        }
+
         /**
          * Sets the config file location for the logger
          *
@@ -503,6 +1193,190 @@ public class DefaultLogger implements Logger {
             return this;
         }
 
+        /**
+         * Sets the capacity of the queue that holds messages waiting to be written to the log files.
+         * The capacity is rounded up to the next power of two.
+         *
+         * @param queueCapacity The queue capacity.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets what the logger does with a new message when its queue of pending messages is full.
+         *
+         * @param overflowPolicy The overflow policy to use.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the overflow policy to {@link OverflowPolicy#DROP_BELOW_LEVEL}, keeping messages at or above the given
+         * level and discarding less severe ones when the queue is full.
+         *
+         * @param overflowLevel The least severe level that is kept when the queue is full.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder dropBelowLevel(LoggingLevel overflowLevel) {
+            this.overflowPolicy = OverflowPolicy.DROP_BELOW_LEVEL;
+            this.overflowLevel = overflowLevel;
+            return this;
+        }
+
+        /**
+         * Sets what the logger does with a new message when the console can't keep up and its queue of lines waiting
+         * to be printed is full. The default, {@link OverflowPolicy#SYNCHRONOUS}, prints the waiting lines on the
+         * logging thread, while the drop policies keep logging threads from ever waiting on the console.
+         *
+         * @param consoleOverflowPolicy The console overflow policy to use.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder consoleOverflowPolicy(OverflowPolicy consoleOverflowPolicy) {
+            this.consoleOverflowPolicy = consoleOverflowPolicy;
+            return this;
+        }
+
+        /**
+         * Sets whether the console output is coloured. By default it is only coloured when the application is attached
+         * to a terminal.
+         *
+         * @param colorMode The color mode to use.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder colorMode(ColorMode colorMode) {
+            this.colorMode = colorMode;
+            return this;
+        }
+
+        /**
+         * Sets the clock used to timestamp log messages.
+         * A cheaper clock such as {@link LogClock#millis()} or {@link LogClock#coarse(long)} can be used to trade
+         * timestamp precision for speed on loggers with a very high rate.
+         *
+         * @param clock The clock to use.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder clock(LogClock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Sets the policy that decides when pending messages are written to the log files.
+         * The default policy writes them once the log frequency has passed, while {@link FlushPolicy#adaptive()}
+         * adapts to the backlog and flushes severe messages within a latency budget.
+         *
+         * @param flushPolicy The flush policy to use.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder flushPolicy(FlushPolicy flushPolicy) {
+            this.flushPolicy = flushPolicy;
+            return this;
+        }
+
+        /**
+         * Sets whether messages are formatted on the thread that writes them instead of the thread that logs them.
+         * When enabled, logging only captures the format string and the arguments, snapshotting the arguments through
+         * the {@link #argumentSnapshotPolicy(ArgumentSnapshotPolicy) argument snapshot policy}.
+         *
+         * @param deferFormatting true to defer formatting, false to format on the logging thread.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder deferFormatting(boolean deferFormatting) {
+            this.deferFormatting = deferFormatting;
+            return this;
+        }
+
+        /**
+         * Sets how message arguments are captured when formatting is deferred.
+         * The default policy captures immutable types as they are and converts everything else to a string.
+         *
+         * @param argumentSnapshotPolicy The argument snapshot policy to use.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder argumentSnapshotPolicy(ArgumentSnapshotPolicy argumentSnapshotPolicy) {
+            this.argumentSnapshotPolicy = argumentSnapshotPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the renderer used for the stack traces of logged throwables.
+         * The default renderer prints every frame, and {@link ThrowableRenderer#builder()} can be used to limit the
+         * depth of the traces and filter out frames of uninteresting packages.
+         *
+         * @param throwableRenderer The throwable renderer to use.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder throwableRenderer(ThrowableRenderer throwableRenderer) {
+            this.throwableRenderer = throwableRenderer;
+            return this;
+        }
+
+        /**
+         * Sets the size at which the log files are rotated while the application runs. A log file that has reached the
+         * size is moved to the log directory under a timestamped name, the same way it would be archived on startup,
+         * and a new file is started. The size is checked before each batch is written, so a file can grow past it by
+         * up to one batch.
+         *
+         * @param maxSize The maximum size of a log file in bytes, or 0 to never rotate because of the size.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder rotateAtSize(long maxSize) {
+            this.rotationMaxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Sets the time boundaries at which the log files are rotated while the application runs. This can be
+         * combined with {@link #rotateAtSize(long)}, in which case a file is rotated at whichever comes first.
+         *
+         * @param rotationInterval The rotation interval to use.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder rotationInterval(RotationInterval rotationInterval) {
+            this.rotationInterval = rotationInterval;
+            return this;
+        }
+
+        /**
+         * Enables suppression of the same failure being logged over and over. Log calls with a throwable are grouped by
+         * their format string, level, exception type and top stack frames, and only the first repeats of a group in
+         * each window are logged in full. The rest are summarised once per window for as long as the burst lasts.
+         *
+         * @param window    The duration of the window.
+         * @param unit      The time unit of the duration.
+         * @param threshold The number of repeats logged in full per window.
+         * @return This Builder instance for method chaining.
+         * @throws IllegalArgumentException if the window is shorter than a millisecond, the resolution windows are kept in.
+         */
+        public Builder suppressDuplicates(long window, TimeUnit unit, int threshold) {
+            // The window is kept in milliseconds, where a shorter one would become 0 and turn suppression off
+            if (window > 0 && unit.toMillis(window) == 0)
+                throw new IllegalArgumentException("Duplicate suppression window must be at least 1 millisecond.");
+
+            this.duplicateSuppressionWindow = unit.toMillis(window);
+            this.duplicateSuppressionThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets the number of top stack frames that are compared to tell repeats of the same failure apart.
+         * The default of 3 tells failures thrown from different places apart without comparing whole stack traces.
+         *
+         * @param frames The number of compared frames.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder duplicateSuppressionFrames(int frames) {
+            this.duplicateSuppressionFrames = frames;
+            return this;
+        }
+
         /**
          * Builds the DefaultLogger instance with the specified configuration.
          *
@@ -534,14 +1408,72 @@ public class DefaultLogger implements Logger {
             if(loggingLayout == null)
                 throw new IllegalStateException("Logging layout must be set before building the logger.");
 
+            if (clock == null)
+                throw new IllegalArgumentException("Clock must not be null.");
+
+            if (queueCapacity <= 0)
+                throw new IllegalArgumentException("Queue capacity must be greater than 0.");
+
+            if (overflowPolicy == null)
+                throw new IllegalArgumentException("Overflow policy must not be null.");
+
+            if (overflowLevel == null)
+                throw new IllegalArgumentException("Overflow level must not be null.");
+
+            if (flushPolicy == null)
+                throw new IllegalArgumentException("Flush policy must not be null.");
+
+            if (consoleOverflowPolicy == null)
+                throw new IllegalArgumentException("Console overflow policy must not be null.");
+
+            if (colorMode == null)
+                throw new IllegalArgumentException("Color mode must not be null.");
+
+            if (argumentSnapshotPolicy == null)
+                throw new IllegalArgumentException("Argument snapshot policy must not be null.");
+
+            if (throwableRenderer == null)
+                throw new IllegalArgumentException("Throwable renderer must not be null.");
+
+            if (rotationMaxSize < 0)
+                throw new IllegalArgumentException("Rotation size must be greater than or equal to 0.");
+
+            if (rotationInterval == null)
+                throw new IllegalArgumentException("Rotation interval must not be null.");
+
+            if (duplicateSuppressionWindow < 0)
+                throw new IllegalArgumentException("Duplicate suppression window must be greater than or equal to 0.");
+
+            if (duplicateSuppressionThreshold < 0)
+                throw new IllegalArgumentException("Duplicate suppression threshold must be greater than or equal to 0.");
+
+            if (duplicateSuppressionFrames < 0)
+                throw new IllegalArgumentException("Duplicate suppression frames must be greater than or equal to 0.");
+
             var logger = new DefaultLogger(name, logDateFormat);
             logger.setLogDirectory(logDirectory);
             logger.setCompressionEnabled(isCompressionEnabled);
             logger.setLogFrequency(logFrequency);
             logger.setDeletionFrequency(deletionFrequency);
             logger.setLoggingLevel(loggingLevel);
+            logger.setFileLoggingLevel(fileLoggingLevel);
             logger.setConfigFile(configFile);
             logger.setLoggingLayout(loggingLayout);
+            logger.setClock(clock);
+            logger.setQueueCapacity(queueCapacity);
+            logger.setOverflowPolicy(overflowPolicy);
+            logger.setOverflowLevel(overflowLevel);
+            logger.setFlushPolicy(flushPolicy);
+            logger.setConsoleOverflowPolicy(consoleOverflowPolicy);
+            logger.setColorMode(colorMode);
+            logger.setDeferFormatting(deferFormatting);
+            logger.setArgumentSnapshotPolicy(argumentSnapshotPolicy);
+            logger.setThrowableRenderer(throwableRenderer);
+            logger.setRotationMaxSize(rotationMaxSize);
+            logger.setRotationInterval(rotationInterval);
+            logger.setDuplicateSuppressionWindow(duplicateSuppressionWindow);
+            logger.setDuplicateSuppressionThreshold(duplicateSuppressionThreshold);
+            logger.setDuplicateSuppressionFrames(duplicateSuppressionFrames);
 
             if (logToLatest) {
                 Path latestLog = logDirectory.resolve("latest.log");
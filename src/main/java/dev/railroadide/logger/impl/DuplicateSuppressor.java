@@ -0,0 +1,233 @@
+package dev.railroadide.logger.impl;
+
+import dev.railroadide.logger.LoggingLevel;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suppresses bursts of the same failure being logged over and over, such as when a downstream service goes away.
+ * <p>
+ * Log calls with a throwable are grouped by their format string, level, exception type and top stack frames. Within a
+ * window, the first occurrences of a group up to the threshold are logged in full, and the rest are only counted. The
+ * writer thread then logs a single summary per window with the number of suppressed occurrences, for as long as the
+ * burst goes on. A group only starts logging in full again once a window passes without it going over the threshold.
+ * <p>
+ * Messages without a throwable are never suppressed.
+ */
+final class DuplicateSuppressor {
+    // Failures come in a handful of shapes, so a bounded number of groups is plenty, and more are simply not suppressed
+    private static final int MAX_TRACKED_GROUPS = 1024;
+
+    private final long window;
+    private final int threshold;
+    private final int frames;
+    private final Map<Key, Group> groups = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a suppressor.
+     *
+     * @param window    The length of a window in nanoseconds.
+     * @param threshold The number of occurrences per window that are logged in full.
+     * @param frames    The number of top stack frames that are compared to tell failures apart.
+     */
+    DuplicateSuppressor(long window, int threshold, int frames) {
+        this.window = window;
+        this.threshold = threshold;
+        this.frames = frames;
+    }
+
+    /**
+     * Gets the length of a window.
+     *
+     * @return The window length in nanoseconds.
+     */
+    long getWindow() {
+        return window;
+    }
+
+    /**
+     * Counts a log call, and decides whether it is logged or suppressed.
+     *
+     * @param format      The format string of the message.
+     * @param level       The logging level of the message.
+     * @param objects     The arguments of the log call.
+     * @param bracesCount The number of placeholders in the format string.
+     * @return true if the message should be logged, false if it is suppressed.
+     */
+    boolean admit(String format, LoggingLevel level, Object[] objects, int bracesCount) {
+        Throwable throwable = null;
+        for (int i = bracesCount; i < objects.length && throwable == null; i++) {
+            if (objects[i] instanceof Throwable trailing) {
+                throwable = trailing;
+            }
+        }
+
+        if (throwable == null)
+            return true;
+
+        StackTraceElement[] trace = throwable.getStackTrace();
+        var key = new Key(format, level, throwable.getClass(), Arrays.copyOf(trace, Math.min(frames, trace.length)));
+        long now = System.nanoTime();
+        while (true) {
+            Group group = groups.get(key);
+            if (group == null) {
+                if (groups.size() >= MAX_TRACKED_GROUPS)
+                    return true;
+
+                group = groups.computeIfAbsent(key, newKey -> new Group(newKey, now));
+            }
+
+            synchronized (group) {
+                // The writer may have dropped the group as idle since we looked it up
+                if (!group.removed)
+                    return group.admit(now);
+            }
+        }
+    }
+
+    /**
+     * Produces a summary for every group whose suppressed occurrences have been waiting for a full window, and forgets
+     * groups that have been idle for a while.
+     *
+     * @param all      Whether to summarise every suppressed occurrence straight away, as when the logger is closed.
+     * @param consumer Receives the level and text of each summary.
+     */
+    void drainSummaries(boolean all, SummaryConsumer consumer) {
+        long now = System.nanoTime();
+        Iterator<Group> iterator = groups.values().iterator();
+        while (iterator.hasNext()) {
+            Group group = iterator.next();
+            long suppressed;
+            long elapsed;
+            synchronized (group) {
+                if (group.suppressed == 0) {
+                    if (now - group.windowStart >= 2 * window) {
+                        group.removed = true;
+                        iterator.remove();
+                    }
+
+                    continue;
+                }
+
+                elapsed = now - group.summaryStart;
+                if (elapsed < window && !all)
+                    continue;
+
+                suppressed = group.suppressed;
+                group.suppressed = 0;
+            }
+
+            Key key = group.key;
+            consumer.accept(key.level, String.format(Locale.ROOT, "%s [%s] repeated %d times in the last %.1f s",
+                    key.format, key.type.getName(), suppressed, elapsed / 1_000_000_000.0));
+        }
+    }
+
+    /**
+     * Gets the time the next summary is due, so that the writer can be woken up for it.
+     *
+     * @return The {@link System#nanoTime()} the next summary is due at, or {@link DefaultLogger#NO_FLUSH_DEADLINE} if
+     * nothing is waiting to be summarised.
+     */
+    long nextSummaryDeadline() {
+        long deadline = DefaultLogger.NO_FLUSH_DEADLINE;
+        for (Group group : groups.values()) {
+            synchronized (group) {
+                if (group.suppressed == 0)
+                    continue;
+
+                long due = group.summaryStart + window;
+                if (deadline == DefaultLogger.NO_FLUSH_DEADLINE || due - deadline < 0) {
+                    deadline = due;
+                }
+            }
+        }
+
+        return deadline;
+    }
+
+    /**
+     * Receives the summaries of suppressed occurrences.
+     */
+    @FunctionalInterface
+    interface SummaryConsumer {
+        void accept(LoggingLevel level, String message);
+    }
+
+    /**
+     * The counters of one group of identical failures, guarded by the group's monitor.
+     */
+    private final class Group {
+        private final Key key;
+        private long windowStart;
+        private int occurrences;
+        private boolean burst;
+        private long suppressed;
+        private long summaryStart;
+        private boolean removed;
+
+        private Group(Key key, long windowStart) {
+            this.key = key;
+            this.windowStart = windowStart;
+        }
+
+        private boolean admit(long now) {
+            if (now - windowStart >= window) {
+                // A burst carries on into the next window only if that window follows straight after
+                burst = occurrences > threshold && now - windowStart < 2 * window;
+                windowStart = now;
+                occurrences = 0;
+            }
+
+            occurrences++;
+            if (!burst && occurrences <= threshold)
+                return true;
+
+            if (suppressed++ == 0) {
+                summaryStart = now;
+            }
+
+            return false;
+        }
+    }
+
+    private static final class Key {
+        private final String format;
+        private final LoggingLevel level;
+        private final Class<?> type;
+        private final StackTraceElement[] topFrames;
+        private final int hash;
+
+        private Key(String format, LoggingLevel level, Class<?> type, StackTraceElement[] topFrames) {
+            this.format = format;
+            this.level = level;
+            this.type = type;
+            this.topFrames = topFrames;
+            this.hash = ((format.hashCode() * 31 + level.hashCode()) * 31 + type.hashCode()) * 31 + Arrays.hashCode(topFrames);
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object)
+                return true;
+
+            if (!(object instanceof Key other))
+                return false;
+
+            return hash == other.hash
+                    && level == other.level
+                    && type == other.type
+                    && format.equals(other.format)
+                    && Arrays.equals(topFrames, other.topFrames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
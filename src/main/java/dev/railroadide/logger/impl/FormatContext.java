@@ -0,0 +1,90 @@
+package dev.railroadide.logger.impl;
+
+import java.util.Arrays;
+
+/**
+ * The buffers a thread formats log text in, reused from one log call to the next. Logging threads render message
+ * text or snapshot message arguments in it.
+ * <p>
+ * A context is borrowed for the duration of a single log call, until the formatted message has been copied into the
+ * queued events. That includes the time the call waits for room in a full queue, parking under the blocking overflow
+ * policies or flushing the queue itself under {@link dev.railroadide.logger.OverflowPolicy#SYNCHRONOUS}. This is
+ * still safe to keep in a {@link ThreadLocal}, since a context is only ever used by the thread it belongs to, and a
+ * log call made while the context is borrowed, for example from an argument's {@code toString()} during such a flush,
+ * gets a fresh context instead. Virtual threads are the exception: there can be millions of them and they are
+ * usually short-lived, so caching a context per virtual thread would cost more than it saves, and they get a fresh
+ * context every time instead.
+ */
+final class FormatContext {
+    private static final int INITIAL_CAPACITY = 512;
+    // A single huge message shouldn't pin a huge buffer to the thread forever
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final ThreadLocal<FormatContext> CONTEXTS = ThreadLocal.withInitial(FormatContext::new);
+
+    private StringBuilder message = new StringBuilder(INITIAL_CAPACITY);
+    private Object[] arguments = new Object[8];
+    private int argumentCount;
+    private boolean inUse;
+
+    private FormatContext() {
+    }
+
+    /**
+     * Borrows the calling thread's context, which must be given back with {@link #release()}.
+     *
+     * @return The context, with empty buffers.
+     */
+    static FormatContext acquire() {
+        if (Thread.currentThread().isVirtual())
+            return new FormatContext();
+
+        FormatContext context = CONTEXTS.get();
+        if (context.inUse)
+            return new FormatContext();
+
+        context.inUse = true;
+        return context;
+    }
+
+    /**
+     * Gives the context back, dropping the message buffer if it has grown past the size cap.
+     */
+    void release() {
+        if (message.capacity() > MAX_RETAINED_CAPACITY) {
+            message = new StringBuilder(INITIAL_CAPACITY);
+        } else {
+            message.setLength(0);
+        }
+
+        if (argumentCount > 0) {
+            Arrays.fill(arguments, 0, argumentCount, null);
+            argumentCount = 0;
+        }
+
+        inUse = false;
+    }
+
+    /**
+     * Gets the buffer the message template is rendered into.
+     *
+     * @return The message buffer.
+     */
+    StringBuilder message() {
+        return message;
+    }
+
+    /**
+     * Gets an array to snapshot the arguments of a message into, which is cleared when the context is released.
+     *
+     * @param count The number of arguments that will be stored.
+     * @return An array with room for at least that many arguments.
+     */
+    Object[] arguments(int count) {
+        if (arguments.length < count) {
+            arguments = new Object[count];
+        }
+
+        argumentCount = count;
+        return arguments;
+    }
+}
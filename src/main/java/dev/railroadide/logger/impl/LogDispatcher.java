@@ -0,0 +1,438 @@
+package dev.railroadide.logger.impl;
+
+import dev.railroadide.logger.util.LoggerUtils;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes the pending messages of every registered {@link DefaultLogger} on a small, fixed set of writer threads.
+ * <p>
+ * A logger arms a flush deadline when its first pending message arrives and wakes its writer thread. The writer
+ * thread flushes every logger whose deadline has passed and then parks until the next deadline, so writer threads
+ * don't wake up at all while no messages are being logged.
+ * <p>
+ * When a logger is flushed, every other logger that shares one of its log files is flushed with it. Their messages are
+ * merged in timestamp order, each message is rendered once, and each log file receives a single write for the whole
+ * batch. The events are handed back to their loggers' queues once they have been rendered.
+ * <p>
+ * Before a batch is written to a log file, the file is rotated if it has grown too large or too old for the rotation
+ * settings of a logger writing to it. Rotating only renames the file, so the batch goes straight into a new file, and
+ * compressing the rotated file is left to a separate archiver thread, which also compresses the files archived on startup.
+ */
+public final class LogDispatcher {
+    private static final Comparator<LogEvent> BY_TIMESTAMP = Comparator.comparingLong(event -> event.timestamp);
+    private static final int MAX_RETAINED_WRITE_BUFFER = 1 << 20;
+    // Long enough for any reasonable log to be compressed, short enough not to hang the application's exit
+    private static final long ARCHIVER_SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final Worker[] workers;
+    private final ExecutorService archiver;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a dispatcher with the given number of writer threads.
+     * Loggers that share their first log file are always handled by the same writer thread.
+     *
+     * @param threads The number of writer threads.
+     */
+    public LogDispatcher(int threads) {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Writer thread count must be greater than 0.");
+
+        ThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern("RailroadLogger-Writer-%d")
+                .daemon(true)
+                .build();
+
+        this.archiver = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder()
+                .namingPattern("RailroadLogger-Archiver-%d")
+                .daemon(true)
+                .build());
+
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker();
+            workers[i].thread = threadFactory.newThread(workers[i]);
+            workers[i].thread.start();
+        }
+    }
+
+    /**
+     * Registers a logger, so that its pending messages are written by this dispatcher. Once the dispatcher has been
+     * shut down, the logger is left without a writer thread and writes its messages on the logging thread.
+     *
+     * @param logger The logger to register.
+     */
+    public void register(DefaultLogger logger) {
+        if (!running)
+            return;
+
+        Worker worker = workerFor(logger);
+        logger.setDispatcherThread(worker.thread);
+        worker.add(logger);
+        LockSupport.unpark(worker.thread);
+    }
+
+    /**
+     * Unregisters a logger. Its pending messages are no longer written by this dispatcher.
+     *
+     * @param logger The logger to unregister.
+     */
+    public void unregister(DefaultLogger logger) {
+        for (Worker worker : workers) {
+            worker.remove(logger);
+        }
+
+        logger.setDispatcherThread(null);
+    }
+
+    /**
+     * Writes the pending messages of a logger, and of every logger sharing a log file with it, on the calling thread.
+     *
+     * @param logger The logger to flush.
+     */
+    public void flush(DefaultLogger logger) {
+        workerFor(logger).flush(List.of(logger));
+    }
+
+    /**
+     * Checks whether the writer threads of this dispatcher are still running.
+     *
+     * @return Whether the dispatcher has not been shut down.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stops the writer threads, and waits for the archiver thread to compress the archived files that are already
+     * queued. Loggers are expected to write their remaining messages when they are closed.
+     */
+    public void shutdown() {
+        running = false;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+
+        // The archiver is a daemon thread, so wait for it here, or the JVM would exit in the middle of a compression
+        archiver.shutdown();
+        try {
+            if (!archiver.awaitTermination(ARCHIVER_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Timed out waiting for archived log files to be compressed");
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Compresses an archived log file on the archiver thread, and deletes the uncompressed file once it has been
+     * compressed successfully. Once the dispatcher has been shut down, the file is compressed on the calling thread.
+     *
+     * @param archivedLogPath The archived log file to compress.
+     */
+    public void compressLater(Path archivedLogPath) {
+        afterArchiving(() -> compress(archivedLogPath));
+    }
+
+    /**
+     * Runs a task on the archiver thread once every compression queued before it has finished, such as deleting old
+     * log files that may include the archives being compressed. Once the dispatcher has been shut down, the task runs
+     * on the calling thread.
+     *
+     * @param task The task to run.
+     */
+    public void afterArchiving(Runnable task) {
+        try {
+            archiver.execute(task);
+        } catch (RejectedExecutionException exception) {
+            task.run();
+        }
+    }
+
+    private static void compress(Path archivedLogPath) {
+        // Keep the uncompressed file if compressing failed, since it is then the only copy of the log
+        if (!LoggerUtils.compress(archivedLogPath))
+            return;
+
+        try {
+            Files.deleteIfExists(archivedLogPath);
+        } catch (IOException exception) {
+            System.err.println("Failed to delete rotated log file " + archivedLogPath + ": " + exception.getMessage());
+        }
+    }
+
+    private Worker workerFor(DefaultLogger logger) {
+        List<Path> files = logger.getFilesToLogTo();
+        Object key = files.isEmpty() ? logger.getName() : files.get(0).toAbsolutePath().normalize();
+        return workers[Math.floorMod(key.hashCode(), workers.length)];
+    }
+
+    private final class Worker implements Runnable {
+        private volatile DefaultLogger[] loggers = new DefaultLogger[0];
+        private Thread thread;
+
+        // Only used by the worker thread
+        private final List<DefaultLogger> due = new ArrayList<>();
+
+        // Guarded by this worker's lock
+        private final List<DefaultLogger> group = new ArrayList<>();
+        private final List<LogFileSink> groupSinks = new ArrayList<>();
+        private final List<LogEvent> batch = new ArrayList<>();
+        // Every event of the batch rendered one after another, with the end of each event's line in lineEnds
+        private final StringBuilder rendered = new StringBuilder();
+        private int[] lineEnds = new int[256];
+        private final StringBuilder text = new StringBuilder();
+        private final BatchEncoder encoder = new BatchEncoder();
+
+        private synchronized void add(DefaultLogger logger) {
+            DefaultLogger[] current = this.loggers;
+            for (DefaultLogger existing : current) {
+                if (existing == logger)
+                    return;
+            }
+
+            DefaultLogger[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = logger;
+            this.loggers = updated;
+        }
+
+        private synchronized void remove(DefaultLogger logger) {
+            DefaultLogger[] current = this.loggers;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] != logger)
+                    continue;
+
+                DefaultLogger[] updated = new DefaultLogger[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                this.loggers = updated;
+                return;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                long now = System.nanoTime();
+                long nextDeadline = 0;
+                boolean hasDeadline = false;
+
+                for (DefaultLogger logger : this.loggers) {
+                    long deadline = logger.getFlushDeadline();
+                    if (deadline == DefaultLogger.NO_FLUSH_DEADLINE)
+                        continue;
+
+                    if (deadline - now <= 0) {
+                        due.add(logger);
+                    } else if (!hasDeadline || deadline - nextDeadline < 0) {
+                        nextDeadline = deadline;
+                        hasDeadline = true;
+                    }
+                }
+
+                if (!due.isEmpty()) {
+                    try {
+                        flush(due);
+                    } catch (RuntimeException exception) {
+                        System.err.println("Failed to write log messages: " + exception.getMessage());
+                    } finally {
+                        due.clear();
+                    }
+
+                    // Flushed loggers may have re-armed their deadlines, so look at them again before parking
+                    continue;
+                }
+
+                if (!hasDeadline) {
+                    LockSupport.park(this);
+                } else {
+                    long delay = nextDeadline - System.nanoTime();
+                    if (delay > 0) {
+                        LockSupport.parkNanos(this, delay);
+                    }
+                }
+            }
+        }
+
+        private synchronized void flush(List<DefaultLogger> loggers) {
+            try {
+                for (DefaultLogger logger : loggers) {
+                    addToGroup(logger);
+                }
+
+                // Pull in every other logger that writes to one of the same files, so each file gets one ordered write
+                boolean grown;
+                do {
+                    grown = false;
+                    for (DefaultLogger candidate : this.loggers) {
+                        if (!group.contains(candidate) && sharesSink(candidate)) {
+                            addToGroup(candidate);
+                            grown = true;
+                        }
+                    }
+                } while (grown);
+
+                // Disarm before draining, so any message that arrives after the drain arms a new deadline
+                for (DefaultLogger logger : group) {
+                    logger.disarmFlush();
+                }
+
+                for (DefaultLogger logger : group) {
+                    logger.drainTo(batch);
+                }
+
+                // Stable sort, so messages with the same timestamp keep their queue order
+                if (!isSorted(batch)) {
+                    batch.sort(BY_TIMESTAMP);
+                }
+
+                renderBatch();
+                for (LogFileSink sink : groupSinks) {
+                    writeBatch(sink);
+                }
+            } finally {
+                for (LogEvent event : batch) {
+                    event.release();
+                }
+
+                for (DefaultLogger logger : group) {
+                    logger.rearmIfPending();
+                }
+
+                group.clear();
+                groupSinks.clear();
+                batch.clear();
+                rendered.setLength(0);
+                if (rendered.capacity() > MAX_RETAINED_WRITE_BUFFER) {
+                    rendered.trimToSize();
+                }
+            }
+        }
+
+        private static boolean isSorted(List<LogEvent> batch) {
+            for (int i = 1; i < batch.size(); i++) {
+                if (batch.get(i - 1).timestamp > batch.get(i).timestamp)
+                    return false;
+            }
+
+            return true;
+        }
+
+        private void renderBatch() {
+            if (lineEnds.length < batch.size()) {
+                lineEnds = new int[Math.max(batch.size(), lineEnds.length * 2)];
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                LogEvent event = batch.get(i);
+                int start = rendered.length();
+                try {
+                    event.logger.render(event, rendered);
+                } catch (RuntimeException exception) {
+                    // A single broken message must not cost the rest of the batch
+                    rendered.setLength(start);
+                    DefaultLogger.appendRenderFailure(rendered, exception);
+                }
+
+                rendered.append('\n');
+                lineEnds[i] = rendered.length();
+            }
+        }
+
+        private void addToGroup(DefaultLogger logger) {
+            if (group.contains(logger))
+                return;
+
+            group.add(logger);
+            for (LogFileSink sink : logger.getLogFileSinks()) {
+                if (!groupSinks.contains(sink)) {
+                    groupSinks.add(sink);
+                }
+            }
+        }
+
+        private boolean sharesSink(DefaultLogger logger) {
+            for (LogFileSink sink : logger.getLogFileSinks()) {
+                if (groupSinks.contains(sink))
+                    return true;
+            }
+
+            return false;
+        }
+
+        private void rotateIfNeeded(LogFileSink sink) {
+            // The first logger of the group that writes to the file and rotates decides how it is rotated
+            DefaultLogger owner = null;
+            for (DefaultLogger logger : group) {
+                if (logger.isRotating() && logger.getLogFileSinks().contains(sink)) {
+                    owner = logger;
+                    break;
+                }
+            }
+
+            if (owner == null)
+                return;
+
+            try {
+                if (!sink.needsRotation(owner.getRotationMaxSize(), owner.getRotationInterval(), System.currentTimeMillis()))
+                    return;
+
+                Path archivedLogPath = LoggerUtils.archivePath(owner, sink.getPath(), sink.getStartTime());
+                sink.rotateTo(archivedLogPath);
+                if (owner.isCompressionEnabled()) {
+                    compressLater(archivedLogPath);
+                }
+            } catch (IOException exception) {
+                System.err.println("Failed to rotate log file " + sink.getPath() + ": " + exception.getMessage());
+            }
+        }
+
+        private void writeBatch(LogFileSink sink) {
+            // When every event goes to this one sink, the rendered batch can be written as it is
+            StringBuilder text = this.rendered;
+            if (groupSinks.size() > 1) {
+                text = this.text;
+                int start = 0;
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.get(i).logger.getLogFileSinks().contains(sink)) {
+                        text.append(rendered, start, lineEnds[i]);
+                    }
+
+                    start = lineEnds[i];
+                }
+            }
+
+            if (text.isEmpty())
+                return;
+
+            try {
+                // Hold the sink for the whole batch, so a batch from another writer thread can't split our lines
+                synchronized (sink) {
+                    rotateIfNeeded(sink);
+                    encoder.write(text, sink);
+                }
+            } catch (IOException exception) {
+                System.err.println("Failed to write log messages to " + sink.getPath() + ": " + exception.getMessage());
+            } finally {
+                this.text.setLength(0);
+                if (this.text.capacity() > MAX_RETAINED_WRITE_BUFFER) {
+                    this.text.trimToSize();
+                }
+            }
+        }
+    }
+}
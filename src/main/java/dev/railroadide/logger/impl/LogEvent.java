@@ -0,0 +1,227 @@
+package dev.railroadide.logger.impl;
+
+import dev.railroadide.logger.LoggingLevel;
+import dev.railroadide.logger.util.MessageTemplate;
+import dev.railroadide.logger.util.RingBuffer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A log message waiting to be written, as a mutable event that lives in a slot of a preallocated {@link RingBuffer}.
+ * <p>
+ * The logging thread fills in the event and renders the message text into it, and the writer thread renders the
+ * layout and any stack traces from it before handing the slot back. The same event object is then filled in again by
+ * a later log call, so logging allocates no events at all.
+ * <p>
+ * When formatting is deferred, the logging thread only stores the message template and its arguments, and the
+ * message text is rendered the first time the writer thread asks for it.
+ */
+final class LogEvent {
+    private static final int INITIAL_CAPACITY = 128;
+    // A single huge message shouldn't pin a huge buffer to the slot forever
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private StringBuilder message = new StringBuilder(INITIAL_CAPACITY);
+    private final List<Throwable> throwables = new ArrayList<>(0);
+    private StringBuilder oversizedMessage;
+
+    // The template and arguments of a message whose formatting was deferred, until it is rendered
+    private MessageTemplate template;
+    private Object[] arguments = NO_ARGUMENTS;
+    private int argumentCount;
+
+    DefaultLogger logger;
+    LoggingLevel level;
+    String threadName;
+    long timestamp;
+
+    // The buffer and position of the slot while the event is claimed or taken, or null for an event outside any buffer
+    RingBuffer<LogEvent> source;
+    long position;
+
+    /**
+     * Claims the next free slot of a buffer.
+     *
+     * @param buffer The buffer to claim a slot of.
+     * @return The event of the claimed slot, or null if the buffer is full.
+     */
+    static LogEvent claim(RingBuffer<LogEvent> buffer) {
+        long position = buffer.claim();
+        if (position < 0)
+            return null;
+
+        LogEvent event = buffer.get(position);
+        event.source = buffer;
+        event.position = position;
+        return event;
+    }
+
+    /**
+     * Takes the oldest published slot of a buffer.
+     *
+     * @param buffer The buffer to take a slot of.
+     * @return The event of the taken slot, or null if the buffer is empty.
+     */
+    static LogEvent take(RingBuffer<LogEvent> buffer) {
+        long position = buffer.take();
+        if (position < 0)
+            return null;
+
+        LogEvent event = buffer.get(position);
+        event.source = buffer;
+        event.position = position;
+        return event;
+    }
+
+    /**
+     * Gets the buffer the message text is rendered into, rendering a deferred message first.
+     *
+     * @return The message buffer.
+     */
+    StringBuilder message() {
+        if (template != null) {
+            try {
+                template.render(message, arguments, argumentCount);
+            } catch (RuntimeException exception) {
+                // An argument's toString() threw, so keep the rest of the line and put a placeholder in the message
+                message.setLength(0);
+                DefaultLogger.appendRenderFailure(message, exception);
+            } finally {
+                clearArguments();
+            }
+        }
+
+        return oversizedMessage != null ? oversizedMessage : message;
+    }
+
+    /**
+     * Gets the length of the message text, or the length of the template if the message has not been rendered yet.
+     * This is cheap enough to call from logging threads to estimate how much text is waiting to be written.
+     *
+     * @return The (estimated) message length.
+     */
+    int length() {
+        if (template != null)
+            return template.getFormat().length();
+
+        return oversizedMessage != null ? oversizedMessage.length() : message.length();
+    }
+
+    /**
+     * Gets the throwables whose stack traces are printed after the message.
+     *
+     * @return The throwables of this event.
+     */
+    List<Throwable> throwables() {
+        return throwables;
+    }
+
+    /**
+     * Replaces the message text with the given text.
+     *
+     * @param text The new message text.
+     */
+    void setMessage(CharSequence text) {
+        clearArguments();
+        StringBuilder buffer = this.message;
+        buffer.setLength(0);
+        if (text.length() > MAX_RETAINED_CAPACITY) {
+            // Keep the slot's own buffer small, and let the oversized one go when the event is cleared
+            this.oversizedMessage = new StringBuilder(text);
+            return;
+        }
+
+        buffer.append(text);
+    }
+
+    /**
+     * Replaces the message text with a template and arguments that are rendered when the text is first needed.
+     * The arguments are copied, so the array may be reused as soon as this returns.
+     *
+     * @param template  The message template.
+     * @param arguments The arguments to substitute into the template.
+     * @param count     The number of arguments to use from the array.
+     */
+    void setTemplate(MessageTemplate template, Object[] arguments, int count) {
+        clearArguments();
+        this.message.setLength(0);
+        this.oversizedMessage = null;
+        if (this.arguments.length < count) {
+            this.arguments = new Object[count];
+        }
+
+        System.arraycopy(arguments, 0, this.arguments, 0, count);
+        this.argumentCount = count;
+        this.template = template;
+    }
+
+    /**
+     * Copies every field of another event into this one.
+     *
+     * @param other The event to copy.
+     */
+    void copyFrom(LogEvent other) {
+        this.logger = other.logger;
+        this.level = other.level;
+        this.threadName = other.threadName;
+        this.timestamp = other.timestamp;
+        if (other.template != null) {
+            setTemplate(other.template, other.arguments, other.argumentCount);
+        } else {
+            setMessage(other.message());
+        }
+
+        this.throwables.clear();
+        this.throwables.addAll(other.throwables);
+    }
+
+    /**
+     * Makes a claimed event available to the buffer's consumers, once it has been filled in.
+     * The event must not be touched afterwards.
+     */
+    void publish() {
+        source.publish(position);
+    }
+
+    /**
+     * Clears a taken event and hands its slot back to the buffer's producers, once it has been written.
+     * The event must not be touched afterwards.
+     */
+    void release() {
+        RingBuffer<LogEvent> buffer = this.source;
+        long position = this.position;
+        clear();
+        if (buffer != null) {
+            buffer.release(position);
+        }
+    }
+
+    private void clear() {
+        this.logger = null;
+        this.level = null;
+        this.threadName = null;
+        this.source = null;
+        this.oversizedMessage = null;
+        if (this.message.capacity() > MAX_RETAINED_CAPACITY) {
+            // A deferred message is rendered straight into the slot's buffer, however long it turns out to be
+            this.message = new StringBuilder(INITIAL_CAPACITY);
+        } else {
+            this.message.setLength(0);
+        }
+
+        this.throwables.clear();
+        clearArguments();
+    }
+
+    private void clearArguments() {
+        this.template = null;
+        if (this.argumentCount > 0) {
+            // Don't keep the arguments reachable from the slot after they have been rendered
+            Arrays.fill(this.arguments, 0, this.argumentCount, null);
+            this.argumentCount = 0;
+        }
+    }
+}
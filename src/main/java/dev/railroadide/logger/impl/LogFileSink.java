@@ -0,0 +1,182 @@
+package dev.railroadide.logger.impl;
+
+import dev.railroadide.logger.RotationInterval;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * A log file that is kept open for appending for as long as it is in use.
+ * The channel is opened on the first write, and is reopened if a write fails or the file is {@link #reopen() reopened}
+ * explicitly, for example after the file has been rotated.
+ * <p>
+ * The sink keeps track of the size of the file and the time it was started, so that the writer can
+ * {@link #rotateTo(Path) rotate} it once it grows too large or too old without asking the file system every time.
+ */
+public final class LogFileSink implements ByteSink {
+    private final Path path;
+    private FileChannel channel;
+    private long size;
+    // The time the current file was started in milliseconds since the epoch, or 0 if it is read from the file on open
+    private long startedAt;
+    private RotationInterval boundaryInterval;
+    private long boundary;
+
+    /**
+     * Creates a sink for the given log file. The file is not opened until the first write.
+     *
+     * @param path The path of the log file.
+     */
+    public LogFileSink(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Gets the path of the log file.
+     *
+     * @return The path of the log file.
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Appends the remaining bytes of the buffer to the log file.
+     * If the write fails before any of the bytes are written, the file is reopened and the write is retried once.
+     *
+     * @param bytes The bytes to write. Its position is advanced to its limit.
+     * @throws IOException If the bytes could not be written even after reopening the file, or were only partly written.
+     */
+    @Override
+    public synchronized void write(ByteBuffer bytes) throws IOException {
+        int start = bytes.position();
+        try {
+            writeFully(bytes);
+        } catch (IOException exception) {
+            closeChannel();
+            // Part of the bytes already made it into the file, and writing them again would tear the line
+            if (bytes.position() != start)
+                throw exception;
+
+            writeFully(bytes);
+        }
+    }
+
+    /**
+     * Closes the log file, so that the next write opens it again.
+     * This is used after the file has been moved or recreated.
+     */
+    public synchronized void reopen() {
+        closeChannel();
+        this.startedAt = 0;
+    }
+
+    /**
+     * Checks whether the log file has grown past the maximum size, or has crossed a time boundary since it was started.
+     * An empty file is never rotated.
+     *
+     * @param maxSize  The maximum size in bytes, or 0 for no maximum.
+     * @param interval The time boundaries to rotate at.
+     * @param now      The current time in milliseconds since the epoch.
+     * @return true if the file should be rotated, false otherwise.
+     * @throws IOException If the file could not be opened.
+     */
+    public synchronized boolean needsRotation(long maxSize, RotationInterval interval, long now) throws IOException {
+        ensureOpen();
+        if (size == 0)
+            return false;
+
+        if (maxSize > 0 && size >= maxSize)
+            return true;
+
+        if (interval == RotationInterval.NONE)
+            return false;
+
+        if (interval != boundaryInterval) {
+            this.boundary = interval.nextBoundary(startedAt);
+            this.boundaryInterval = interval;
+        }
+
+        return now >= boundary;
+    }
+
+    /**
+     * Gets the time the current log file was started.
+     *
+     * @return The time the file was started.
+     * @throws IOException If the file could not be opened.
+     */
+    public synchronized FileTime getStartTime() throws IOException {
+        ensureOpen();
+        return FileTime.fromMillis(startedAt);
+    }
+
+    /**
+     * Closes the log file and moves it to the given path. The next write starts a new file.
+     *
+     * @param target The path to move the log file to.
+     * @throws IOException If the file could not be moved. The sink keeps writing to the current file in that case.
+     */
+    public synchronized void rotateTo(Path target) throws IOException {
+        closeChannel();
+        Files.move(path, target);
+
+        // The new file may inherit the old one's creation time through file system tunnelling, so don't trust it
+        this.size = 0;
+        this.startedAt = System.currentTimeMillis();
+        this.boundaryInterval = null;
+    }
+
+    /**
+     * Closes the log file.
+     */
+    public synchronized void close() {
+        closeChannel();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        ensureOpen();
+        while (bytes.hasRemaining()) {
+            size += channel.write(bytes);
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel != null && channel.isOpen())
+            return;
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+        if (startedAt == 0) {
+            startedAt = readCreationTime();
+            boundaryInterval = null;
+        }
+    }
+
+    private long readCreationTime() {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class).creationTime().toMillis();
+        } catch (IOException | UnsupportedOperationException exception) {
+            return System.currentTimeMillis();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null)
+            return;
+
+        try {
+            channel.close();
+        } catch (IOException exception) {
+            System.err.println("Failed to close log file " + path + ": " + exception.getMessage());
+        }
+
+        channel = null;
+    }
+}
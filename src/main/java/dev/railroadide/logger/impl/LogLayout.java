@@ -0,0 +1,161 @@
+package dev.railroadide.logger.impl;
+
+import dev.railroadide.logger.LoggingLevel;
+import dev.railroadide.logger.util.TimestampCache;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A logging layout compiled into a list of segments.
+ * The layout string is parsed once, and each log line is then rendered by appending every segment directly into a
+ * single {@link StringBuilder}.
+ */
+final class LogLayout {
+    private static final Map<String, Segment> PLACEHOLDERS = Map.of(
+            "{hours}", Segment.HOURS,
+            "{minutes}", Segment.MINUTES,
+            "{seconds}", Segment.SECONDS,
+            "{milliseconds}", Segment.MILLISECONDS,
+            "{nanoseconds}", Segment.NANOSECONDS,
+            "{threadName}", Segment.THREAD_NAME,
+            "{loggingLevelName}", Segment.LOGGING_LEVEL_NAME,
+            "{loggerName}", Segment.LOGGER_NAME,
+            "{message}", Segment.MESSAGE
+    );
+
+    private final String pattern;
+    private final Segment[] segments;
+    // The literal text for each LITERAL segment, null for every other segment
+    private final String[] literals;
+    private final TimestampCache timestamps = new TimestampCache(ZoneId.systemDefault());
+
+    private LogLayout(String pattern, Segment[] segments, String[] literals) {
+        this.pattern = pattern;
+        this.segments = segments;
+        this.literals = literals;
+    }
+
+    /**
+     * Compiles a layout string such as {@code "{hours}:{minutes} [{threadName}] {message}"}.
+     * Anything that is not a known placeholder is kept as literal text.
+     *
+     * @param pattern The layout string.
+     * @return The compiled layout.
+     */
+    static LogLayout compile(String pattern) {
+        if (pattern == null)
+            throw new IllegalArgumentException("Logging layout must not be null.");
+
+        List<Segment> segments = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        var literal = new StringBuilder();
+
+        int index = 0;
+        while (index < pattern.length()) {
+            char character = pattern.charAt(index);
+            int end = character == '{' ? pattern.indexOf('}', index) : -1;
+            Segment segment = end == -1 ? null : PLACEHOLDERS.get(pattern.substring(index, end + 1));
+            if (segment == null) {
+                literal.append(character);
+                index++;
+                continue;
+            }
+
+            if (!literal.isEmpty()) {
+                segments.add(Segment.LITERAL);
+                literals.add(literal.toString());
+                literal.setLength(0);
+            }
+
+            segments.add(segment);
+            literals.add(null);
+            index = end + 1;
+        }
+
+        if (!literal.isEmpty()) {
+            segments.add(Segment.LITERAL);
+            literals.add(literal.toString());
+        }
+
+        // "{hours}:{minutes}:{seconds}" is rendered straight from the cached text of the current second
+        for (int i = 0; i + 4 < segments.size(); i++) {
+            if (segments.get(i) == Segment.HOURS && ":".equals(literals.get(i + 1)) && segments.get(i + 2) == Segment.MINUTES
+                    && ":".equals(literals.get(i + 3)) && segments.get(i + 4) == Segment.SECONDS) {
+                segments.subList(i + 1, i + 5).clear();
+                literals.subList(i + 1, i + 5).clear();
+                segments.set(i, Segment.TIME);
+            }
+        }
+
+        return new LogLayout(pattern, segments.toArray(new Segment[0]), literals.toArray(new String[0]));
+    }
+
+    /**
+     * Gets the layout string this layout was compiled from.
+     *
+     * @return The layout string.
+     */
+    String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Renders a log line into the given builder.
+     *
+     * @param builder    The builder to append to.
+     * @param timestamp  The time of the log message in nanoseconds since the epoch.
+     * @param threadName The name of the thread that logged the message.
+     * @param level      The logging level of the message.
+     * @param loggerName The name of the logger.
+     * @param message    The formatted message.
+     */
+    void render(StringBuilder builder, long timestamp, String threadName, LoggingLevel level, String loggerName, CharSequence message) {
+        TimestampCache.Second second = timestamps.get(timestamp);
+        int nanos = (int) Math.floorMod(timestamp, 1_000_000_000L);
+        for (int i = 0; i < segments.length; i++) {
+            switch (segments[i]) {
+                case LITERAL -> builder.append(literals[i]);
+                case TIME -> second.appendTime(builder);
+                case HOURS -> second.appendHours(builder);
+                case MINUTES -> second.appendMinutes(builder);
+                case SECONDS -> second.appendSeconds(builder);
+                case MILLISECONDS -> appendPadded(builder, nanos / 1_000_000, 4);
+                case NANOSECONDS -> appendPadded(builder, nanos, 7);
+                case THREAD_NAME -> builder.append(threadName);
+                case LOGGING_LEVEL_NAME -> builder.append(level.name());
+                case LOGGER_NAME -> builder.append(loggerName);
+                case MESSAGE -> builder.append(message);
+            }
+        }
+    }
+
+    private static void appendPadded(StringBuilder builder, int value, int width) {
+        int digits = 1;
+        for (int remaining = value / 10; remaining > 0; remaining /= 10) {
+            digits++;
+        }
+
+        for (int i = digits; i < width; i++) {
+            builder.append('0');
+        }
+
+        builder.append(value);
+    }
+
+    private enum Segment {
+        LITERAL,
+        TIME,
+        HOURS,
+        MINUTES,
+        SECONDS,
+        MILLISECONDS,
+        NANOSECONDS,
+        THREAD_NAME,
+        LOGGING_LEVEL_NAME,
+        LOGGER_NAME,
+        MESSAGE
+    }
+}
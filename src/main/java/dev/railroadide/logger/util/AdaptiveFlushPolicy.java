@@ -0,0 +1,156 @@
+package dev.railroadide.logger.util;
+
+import dev.railroadide.logger.LoggingLevel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A flush policy that trades throughput against durability depending on how busy the logger is.
+ * <ul>
+ *     <li>The logger is flushed straight away once its backlog reaches the pending message or byte threshold.</li>
+ *     <li>A message at or above the urgent level is flushed within the latency budget.</li>
+ *     <li>Every flush that stays below the thresholds doubles the flush interval, up to the maximum interval, so a
+ *     quiet logger writes rarely. A flush that reaches a threshold drops the interval back to the minimum.</li>
+ * </ul>
+ */
+public final class AdaptiveFlushPolicy implements FlushPolicy {
+    private final long minInterval;
+    private final long maxInterval;
+    private final int maxPendingMessages;
+    private final long maxPendingBytes;
+    private final LoggingLevel urgentLevel;
+    private final long latencyBudget;
+
+    private AdaptiveFlushPolicy(Builder builder) {
+        this.minInterval = builder.minInterval;
+        this.maxInterval = builder.maxInterval;
+        this.maxPendingMessages = builder.maxPendingMessages;
+        this.maxPendingBytes = builder.maxPendingBytes;
+        this.urgentLevel = builder.urgentLevel;
+        this.latencyBudget = builder.latencyBudget;
+    }
+
+    @Override
+    public long flushDelay(LoggingLevel level, int pendingMessages, long pendingBytes, long interval) {
+        if (pendingMessages >= maxPendingMessages || pendingBytes >= maxPendingBytes)
+            return 0;
+
+        long delay = Math.max(minInterval, Math.min(maxInterval, interval));
+        if (level.ordinal() <= urgentLevel.ordinal())
+            return Math.min(delay, latencyBudget);
+
+        return delay;
+    }
+
+    @Override
+    public long nextInterval(long interval, int flushedMessages, long flushedBytes) {
+        if (flushedMessages >= maxPendingMessages || flushedBytes >= maxPendingBytes)
+            return minInterval;
+
+        long clamped = Math.max(minInterval, Math.min(maxInterval, interval));
+        return clamped > maxInterval / 2 ? maxInterval : Math.max(1, clamped * 2);
+    }
+
+    /**
+     * Builder for creating an AdaptiveFlushPolicy instance.
+     */
+    public static class Builder {
+        private long minInterval = TimeUnit.MILLISECONDS.toNanos(100); // Default to 100 milliseconds
+        private long maxInterval = TimeUnit.SECONDS.toNanos(5); // Default to 5 seconds
+        private int maxPendingMessages = 4096;
+        private long maxPendingBytes = 1 << 20;
+        private LoggingLevel urgentLevel = LoggingLevel.ERROR;
+        private long latencyBudget = TimeUnit.MILLISECONDS.toNanos(10); // Default to 10 milliseconds
+
+        Builder() {
+        }
+
+        /**
+         * Sets the shortest flush interval, used while the logger is busy.
+         *
+         * @param duration The duration of the interval.
+         * @param unit     The time unit of the duration.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder minInterval(long duration, TimeUnit unit) {
+            this.minInterval = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the longest flush interval, which a quiet logger backs off to.
+         *
+         * @param duration The duration of the interval.
+         * @param unit     The time unit of the duration.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder maxInterval(long duration, TimeUnit unit) {
+            this.maxInterval = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Sets the number of pending messages at which the logger is flushed straight away.
+         *
+         * @param maxPendingMessages The pending message threshold.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder maxPendingMessages(int maxPendingMessages) {
+            this.maxPendingMessages = maxPendingMessages;
+            return this;
+        }
+
+        /**
+         * Sets the size of the pending messages at which the logger is flushed straight away.
+         * The size is estimated from the length of the messages, which is exact for ASCII text.
+         *
+         * @param maxPendingBytes The pending byte threshold.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder maxPendingBytes(long maxPendingBytes) {
+            this.maxPendingBytes = maxPendingBytes;
+            return this;
+        }
+
+        /**
+         * Sets the least severe level that is flushed within the latency budget, and the budget itself.
+         *
+         * @param urgentLevel The least severe urgent level.
+         * @param duration    The duration of the latency budget.
+         * @param unit        The time unit of the duration.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder flushWithin(LoggingLevel urgentLevel, long duration, TimeUnit unit) {
+            this.urgentLevel = urgentLevel;
+            this.latencyBudget = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Builds the AdaptiveFlushPolicy instance with the specified configuration.
+         *
+         * @return A new AdaptiveFlushPolicy instance.
+         */
+        public AdaptiveFlushPolicy build() {
+            if (minInterval <= 0)
+                throw new IllegalArgumentException("Minimum flush interval must be greater than 0.");
+
+            if (maxInterval < minInterval)
+                throw new IllegalArgumentException("Maximum flush interval must not be less than the minimum flush interval.");
+
+            if (maxPendingMessages <= 0)
+                throw new IllegalArgumentException("Pending message threshold must be greater than 0.");
+
+            if (maxPendingBytes <= 0)
+                throw new IllegalArgumentException("Pending byte threshold must be greater than 0.");
+
+            if (urgentLevel == null)
+                throw new IllegalArgumentException("Urgent level must not be null.");
+
+            if (latencyBudget < 0)
+                throw new IllegalArgumentException("Latency budget must be greater than or equal to 0.");
+
+            return new AdaptiveFlushPolicy(this);
+        }
+    }
+}
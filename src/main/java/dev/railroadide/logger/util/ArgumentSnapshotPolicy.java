@@ -0,0 +1,84 @@
+package dev.railroadide.logger.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Decides how the arguments of a log message are captured when the message is formatted later, on the writer thread.
+ * <p>
+ * An argument that can't change between the log call and the moment it is formatted can be captured as it is. Any
+ * other argument has to be snapshotted on the logging thread, or the log line may show a state the argument was only
+ * in after the log call.
+ */
+@FunctionalInterface
+public interface ArgumentSnapshotPolicy {
+    /**
+     * Captures an argument on the logging thread.
+     *
+     * @param argument The argument passed to the log call, which may be null.
+     * @return The argument itself if it is safe to format later, or a snapshot of it otherwise.
+     */
+    Object snapshot(Object argument);
+
+    /**
+     * Gets a policy that captures well-known immutable types as they are, and converts every other argument to a
+     * string on the logging thread. This is always safe, and only costs a conversion for arguments that need one.
+     *
+     * @return The immutable-or-string policy.
+     */
+    static ArgumentSnapshotPolicy immutableOrString() {
+        return argument -> argument == null || ImmutableTypes.isImmutable(argument.getClass()) ? argument : String.valueOf(argument);
+    }
+
+    /**
+     * Gets a policy that captures every argument as it is. This is only safe if arguments are never modified after
+     * they have been logged, but leaves nothing but the enqueue on the logging thread.
+     * <p>
+     * The arguments' {@code toString()} methods then run on the writer and console threads, which are shared by every
+     * logger. A {@code toString()} that throws only costs its own message, which is written as a placeholder, but one
+     * that blocks or is slow holds up the output of every logger until it returns.
+     *
+     * @return The by-reference policy.
+     */
+    static ArgumentSnapshotPolicy byReference() {
+        return argument -> argument;
+    }
+
+    /**
+     * The types that can be captured without a snapshot, looked up once per class.
+     */
+    final class ImmutableTypes {
+        private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+                String.class, Integer.class, Long.class, Short.class, Byte.class, Double.class, Float.class,
+                Boolean.class, Character.class, BigInteger.class, BigDecimal.class, UUID.class, URI.class, Class.class
+        );
+
+        private static final ClassValue<Boolean> IMMUTABLE = new ClassValue<>() {
+            @Override
+            protected Boolean computeValue(Class<?> type) {
+                // Subclasses of the types above, such as a custom BigInteger, are not guaranteed to be immutable
+                return IMMUTABLE_TYPES.contains(type)
+                        || type.isEnum()
+                        || (type.getPackageName().equals("java.time") && type.getModule() == Path.class.getModule())
+                        || (Path.class.isAssignableFrom(type) && type.getModule() == Path.class.getModule());
+            }
+        };
+
+        private ImmutableTypes() {
+        }
+
+        /**
+         * Checks whether instances of a class are known to be immutable.
+         *
+         * @param type The class to check.
+         * @return true if instances of the class are known to be immutable, false otherwise.
+         */
+        public static boolean isImmutable(Class<?> type) {
+            return IMMUTABLE.get(type);
+        }
+    }
+}
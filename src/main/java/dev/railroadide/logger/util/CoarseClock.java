@@ -0,0 +1,31 @@
+package dev.railroadide.logger.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link LogClock} that caches the time of another clock and refreshes it from a background thread.
+ */
+final class CoarseClock implements LogClock {
+    private final LogClock source;
+    private volatile long now;
+
+    CoarseClock(LogClock source, long tickMillis) {
+        this.source = source;
+        this.now = source.currentTimeNanos();
+
+        long tickNanos = tickMillis * 1_000_000L;
+        var ticker = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                LockSupport.parkNanos(tickNanos);
+                this.now = this.source.currentTimeNanos();
+            }
+        }, "RailroadLogger-CoarseClock");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public long currentTimeNanos() {
+        return now;
+    }
+}
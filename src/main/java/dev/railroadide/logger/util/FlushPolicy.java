@@ -0,0 +1,55 @@
+package dev.railroadide.logger.util;
+
+import dev.railroadide.logger.LoggingLevel;
+
+/**
+ * Decides how long a logger may keep its pending messages before they are written to its log files.
+ * <p>
+ * A policy holds no state of its own. Each logger keeps its current flush interval, which starts at its log frequency,
+ * and asks the policy for a delay whenever a message is queued and for a new interval after every flush. This lets
+ * one policy be shared between any number of loggers.
+ */
+public interface FlushPolicy {
+    /**
+     * Gets the longest time a newly queued message may wait before the logger is flushed.
+     * If the logger already has an earlier flush planned, that flush is kept.
+     *
+     * @param level           The logging level of the queued message.
+     * @param pendingMessages The number of messages waiting to be written, including the queued one.
+     * @param pendingBytes    The estimated size of the messages waiting to be written, in bytes.
+     * @param interval        The logger's current flush interval in nanoseconds.
+     * @return The delay in nanoseconds, or 0 to flush as soon as possible.
+     */
+    long flushDelay(LoggingLevel level, int pendingMessages, long pendingBytes, long interval);
+
+    /**
+     * Gets the flush interval to use after a flush.
+     *
+     * @param interval        The logger's current flush interval in nanoseconds.
+     * @param flushedMessages The number of messages the flush wrote.
+     * @param flushedBytes    The estimated size of the messages the flush wrote, in bytes.
+     * @return The new flush interval in nanoseconds.
+     */
+    default long nextInterval(long interval, int flushedMessages, long flushedBytes) {
+        return interval;
+    }
+
+    /**
+     * Gets a policy that always flushes once the logger's log frequency has passed since the first pending message.
+     *
+     * @return The fixed policy.
+     */
+    static FlushPolicy fixed() {
+        return (level, pendingMessages, pendingBytes, interval) -> interval;
+    }
+
+    /**
+     * Creates a builder for a policy that adapts to the backlog and flushes severe messages within a latency budget.
+     *
+     * @return A new builder for an adaptive policy.
+     * @see AdaptiveFlushPolicy
+     */
+    static AdaptiveFlushPolicy.Builder adaptive() {
+        return new AdaptiveFlushPolicy.Builder();
+    }
+}
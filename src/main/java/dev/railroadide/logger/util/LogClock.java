@@ -0,0 +1,68 @@
+package dev.railroadide.logger.util;
+
+import java.time.Instant;
+import java.time.InstantSource;
+
+/**
+ * A source of timestamps for log messages, in nanoseconds since the epoch.
+ * Loggers read the clock once per message and derive every time field of the log line from that single reading.
+ */
+@FunctionalInterface
+public interface LogClock {
+    /**
+     * Gets the current time.
+     *
+     * @return The current time in nanoseconds since the epoch.
+     */
+    long currentTimeNanos();
+
+    /**
+     * Gets a clock backed by the system clock, with the best precision the platform offers.
+     *
+     * @return The system clock.
+     */
+    static LogClock system() {
+        return of(InstantSource.system());
+    }
+
+    /**
+     * Gets a clock backed by {@link System#currentTimeMillis()}.
+     * This is cheaper to read than {@link #system()}, but only has millisecond precision.
+     *
+     * @return The millisecond clock.
+     */
+    static LogClock millis() {
+        return () -> System.currentTimeMillis() * 1_000_000L;
+    }
+
+    /**
+     * Gets a clock backed by the given instant source.
+     *
+     * @param source The instant source to read from.
+     * @return A clock reading from the instant source.
+     */
+    static LogClock of(InstantSource source) {
+        if (source == null)
+            throw new IllegalArgumentException("Instant source must not be null.");
+
+        return () -> {
+            Instant instant = source.instant();
+            return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+        };
+    }
+
+    /**
+     * Gets a clock that is updated by a background thread every tick, so reading it is a single volatile read.
+     * Timestamps are only as precise as the tick, which trades precision for speed on loggers with a very high rate.
+     * Each coarse clock owns a daemon thread, so it should be created once and shared between loggers.
+     *
+     * @param tickMillis The interval between updates in milliseconds.
+     * @return The coarse clock.
+     */
+    static LogClock coarse(long tickMillis) {
+        if (tickMillis <= 0)
+            throw new IllegalArgumentException("Tick interval must be greater than 0.");
+
+        return new CoarseClock(millis(), tickMillis);
+    }
+}
@@ -1,5 +1,6 @@
 package dev.railroadide.logger.util;
 
+import dev.railroadide.logger.Logger;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
 
 import java.io.BufferedOutputStream;
@@ -8,11 +9,46 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 
 public class LoggerUtils {
-    public static void compress(Path path) {
+    /**
+     * Gets a free path in the logger's log directory to archive a log file to, named after the time the file was
+     * started and the name of the file, such as {@code 2024-01-31-12-00-00_latest.log}.
+     *
+     * @param logger  The logger whose log directory and date format are used.
+     * @param logPath The log file to archive.
+     * @param started The time the log file was started.
+     * @return The path to archive the log file to.
+     */
+    public static Path archivePath(Logger logger, Path logPath, FileTime started) {
+        Path logDirectory = logger.getLogDirectory();
+        String timestamp = logger.formatFileTime(started);
+        String fileName = logPath.getFileName().toString();
+        int extension = fileName.lastIndexOf('.');
+        String logNameWithoutExtension = extension == -1 ? fileName : fileName.substring(0, extension);
+        Path archivedLogPath = logDirectory.resolve(String.format("%s_%s.log", timestamp, logNameWithoutExtension));
+
+        int count = 1;
+        while (Files.exists(archivedLogPath) || Files.exists(archivedLogPath.resolveSibling(archivedLogPath.getFileName() + ".tar.gz"))) {
+            archivedLogPath = logDirectory.resolve(String.format("%s_%s(%d).log", timestamp, logNameWithoutExtension, count));
+            count++;
+        }
+
+        return archivedLogPath;
+    }
+
+    /**
+     * Compresses a file into a sibling file with {@code .tar.gz} appended to its name. The file itself is left as it is.
+     *
+     * @param path The file to compress.
+     * @return true if the file was compressed, false if it could not be, in which case no compressed file is left behind.
+     */
+    public static boolean compress(Path path) {
         Path outputPath = path.resolveSibling(path.getFileName().toString() + ".tar.gz");
         try (var inputChannel = FileChannel.open(path, StandardOpenOption.READ);
              var outChannel = FileChannel.open(outputPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
@@ -26,7 +62,17 @@ public class LoggerUtils {
                 gzipOutputStream.write(buf, 0, length);
             }
         } catch (IOException exception) {
-            System.out.println();
+            System.err.println("Failed to compress log file " + path + ": " + exception.getMessage());
+            // Don't leave a truncated archive, unless the archive was someone else's to begin with
+            if (!(exception instanceof FileAlreadyExistsException)) {
+                try {
+                    Files.deleteIfExists(outputPath);
+                } catch (IOException ignored) {}
+            }
+
+            return false;
         }
+
+        return true;
     }
 }
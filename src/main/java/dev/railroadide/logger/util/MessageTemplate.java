@@ -0,0 +1,182 @@
+package dev.railroadide.logger.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pre-parsed log message format string.
+ * The format is split once into literal segments and {@code {}} placeholder slots, so rendering a message is a single
+ * linear pass into a {@link StringBuilder} without any regular expressions or intermediate strings.
+ * <p>
+ * A placeholder can be escaped with a backslash ({@code \{}}), in which case it is rendered as a literal {@code {}}.
+ */
+public final class MessageTemplate {
+    private static final int MAX_CACHED_TEMPLATES = 1024;
+    private static final Map<String, MessageTemplate> CACHE = new ConcurrentHashMap<>();
+
+    private final String format;
+    // Literal segments are stored as offsets into the format string, each one optionally followed by a placeholder slot
+    private final int[] literalStarts;
+    private final int[] literalEnds;
+    private final boolean[] placeholderAfter;
+    private final int placeholderCount;
+
+    private MessageTemplate(String format, int[] literalStarts, int[] literalEnds, boolean[] placeholderAfter, int placeholderCount) {
+        this.format = format;
+        this.literalStarts = literalStarts;
+        this.literalEnds = literalEnds;
+        this.placeholderAfter = placeholderAfter;
+        this.placeholderCount = placeholderCount;
+    }
+
+    /**
+     * Gets the template for the given format string, parsing it if it has not been seen before.
+     * Parsed templates are cached up to a fixed number of distinct formats, after which new formats are parsed
+     * on every call instead of growing the cache.
+     *
+     * @param format The message format string.
+     * @return The parsed template.
+     */
+    public static MessageTemplate of(String format) {
+        MessageTemplate template = CACHE.get(format);
+        if (template != null)
+            return template;
+
+        template = parse(format);
+        if (CACHE.size() < MAX_CACHED_TEMPLATES) {
+            MessageTemplate existing = CACHE.putIfAbsent(format, template);
+            if (existing != null)
+                return existing;
+        }
+
+        return template;
+    }
+
+    /**
+     * Parses a format string into a template without consulting the cache.
+     *
+     * @param format The message format string.
+     * @return The parsed template.
+     */
+    public static MessageTemplate parse(String format) {
+        int capacity = 4;
+        int[] starts = new int[capacity];
+        int[] ends = new int[capacity];
+        boolean[] placeholders = new boolean[capacity];
+        int segments = 0;
+        int placeholderCount = 0;
+
+        int segmentStart = 0;
+        int length = format.length();
+        for (int i = 0; i < length - 1; i++) {
+            if (format.charAt(i) != '{' || format.charAt(i + 1) != '}')
+                continue;
+
+            boolean escaped = i > 0 && format.charAt(i - 1) == '\\';
+            if (segments == capacity) {
+                capacity *= 2;
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                placeholders = Arrays.copyOf(placeholders, capacity);
+            }
+
+            starts[segments] = segmentStart;
+            if (escaped) {
+                // Drop the backslash and keep the braces as part of the next literal segment
+                ends[segments] = i - 1;
+                segmentStart = i;
+            } else {
+                ends[segments] = i;
+                placeholders[segments] = true;
+                placeholderCount++;
+                segmentStart = i + 2;
+            }
+
+            segments++;
+            i++;
+        }
+
+        int[] literalStarts = Arrays.copyOf(starts, segments + 1);
+        int[] literalEnds = Arrays.copyOf(ends, segments + 1);
+        literalStarts[segments] = segmentStart;
+        literalEnds[segments] = length;
+        return new MessageTemplate(format, literalStarts, literalEnds, Arrays.copyOf(placeholders, segments + 1), placeholderCount);
+    }
+
+    /**
+     * Gets the original format string of this template.
+     *
+     * @return The format string.
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the number of unescaped {@code {}} placeholders in this template.
+     *
+     * @return The number of placeholders.
+     */
+    public int getPlaceholderCount() {
+        return placeholderCount;
+    }
+
+    /**
+     * Renders this template into the given builder, substituting the arguments into the placeholders in order.
+     * Placeholders without a matching argument are rendered as {@code {}}, and surplus arguments are ignored.
+     *
+     * @param builder   The builder to append to.
+     * @param arguments The arguments to substitute.
+     * @param count     The number of arguments to use from the array.
+     * @return The builder, for chaining.
+     */
+    public StringBuilder render(StringBuilder builder, Object[] arguments, int count) {
+        int slot = 0;
+        for (int i = 0; i < literalStarts.length; i++) {
+            builder.append(format, literalStarts[i], literalEnds[i]);
+            if (!placeholderAfter[i])
+                continue;
+
+            if (slot < count) {
+                appendArgument(builder, arguments[slot]);
+            } else {
+                builder.append("{}");
+            }
+
+            slot++;
+        }
+
+        return builder;
+    }
+
+    /**
+     * Renders this template with the given arguments into a new string.
+     *
+     * @param arguments The arguments to substitute.
+     * @return The rendered message.
+     */
+    public String format(Object... arguments) {
+        if (placeholderCount == 0 && literalStarts.length == 1)
+            return format;
+
+        return render(new StringBuilder(format.length() + 16 * placeholderCount), arguments, arguments.length).toString();
+    }
+
+    private static void appendArgument(StringBuilder builder, Object argument) {
+        // Append common types directly so they don't need to be converted to a string first
+        if (argument instanceof CharSequence sequence) {
+            builder.append(sequence);
+        } else if (argument instanceof Integer value) {
+            builder.append(value.intValue());
+        } else if (argument instanceof Long value) {
+            builder.append(value.longValue());
+        } else if (argument instanceof Boolean value) {
+            builder.append(value.booleanValue());
+        } else if (argument instanceof Character value) {
+            builder.append(value.charValue());
+        } else {
+            builder.append(argument);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package dev.railroadide.logger.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free token bucket that hands out a number of permits per period, with bursts of up to that many permits.
+ * <p>
+ * Instead of a token count and a refill time, the bucket only keeps the time at which it will be full again, in a
+ * single {@link AtomicLong}. Taking a permit moves that time one permit's worth of the period into the future, and a
+ * permit is refused while that time is further ahead than the bucket can hold. A refused permit is a single read and
+ * never writes to the bucket's time, only to a striped counter of refusals, so a bucket that is hammered by many
+ * threads stays cheap to refuse.
+ */
+public final class RateLimiter {
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong fullAt;
+    private final LongAdder denied = new LongAdder();
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param permits The number of permits per period, which is also the largest burst.
+     * @param period  The period the permits are spread over.
+     */
+    public RateLimiter(int permits, Duration period) {
+        if (permits <= 0)
+            throw new IllegalArgumentException("Permits must be greater than 0.");
+
+        if (period == null || period.isNegative() || period.isZero())
+            throw new IllegalArgumentException("Period must be greater than 0.");
+
+        this.interval = Math.max(1, period.toNanos() / permits);
+        this.tolerance = this.interval * (permits - 1);
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes a permit if one is available.
+     *
+     * @return true if a permit was taken, false if the bucket is empty.
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long current = fullAt.get();
+            // A bucket that has been full for a while is only ever full, it doesn't save up permits
+            long start = current - now < 0 ? now : current;
+            if (start - now > tolerance) {
+                denied.increment();
+                return false;
+            }
+
+            if (fullAt.compareAndSet(current, start + interval))
+                return true;
+        }
+    }
+
+    /**
+     * Checks whether the bucket has filled up again, in which case it behaves exactly like a new bucket.
+     *
+     * @return true if every permit is available, false otherwise.
+     */
+    public boolean isFull() {
+        return fullAt.get() - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Gets the number of permits that were refused because the bucket was empty.
+     *
+     * @return The number of refused permits.
+     */
+    public long getDenied() {
+        return denied.sum();
+    }
+}
@@ -0,0 +1,90 @@
+package dev.railroadide.logger.util;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The rate limiters of one logger, by key, as used for the rate limited views of the logger.
+ * <p>
+ * Only the rate limiters are kept, not the views, so nothing in here refers back to the logger. That lets loggers
+ * that don't keep their own instance share the instances of {@link #of(Object)}, which are forgotten together with
+ * their logger.
+ * <p>
+ * Call sites are bounded by the code, but explicit keys may not be, so the number of rate limiters is capped. When the
+ * cap is reached, rate limiters that have filled up again are forgotten, since a new one would behave the same. If
+ * that doesn't make room, new keys share a single overflow rate limiter instead, so that a flood of keys can neither
+ * grow the map nor reset the rate limits that are in use.
+ */
+public final class RateLimiters {
+    private static final int MAX_RATE_LIMITERS = 4096;
+    // How often a full map is swept for rate limiters that can be forgotten, so a flood of new keys doesn't sweep each time
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Map<Object, RateLimiters> SHARED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<Object, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private volatile RateLimiter overflow;
+    private volatile long nextSweep = System.nanoTime();
+
+    /**
+     * Gets the rate limiters of an owner that doesn't keep its own instance, creating them if needed.
+     *
+     * @param owner The owner of the rate limiters, usually a logger.
+     * @return The rate limiters of the owner.
+     */
+    public static RateLimiters of(Object owner) {
+        return SHARED.computeIfAbsent(owner, ignored -> new RateLimiters());
+    }
+
+    /**
+     * Gets the rate limiter for a key, creating it with the given rate if it doesn't exist yet. Every call with the
+     * same key shares the same rate, which is the one the rate limiter was created with. If there are too many keys
+     * to keep track of, a new key gets the shared overflow rate limiter instead.
+     *
+     * @param key     The key of the rate limit.
+     * @param permits The number of permits per period, which is also the largest burst.
+     * @param period  The period the permits are spread over.
+     * @return The rate limiter for the key.
+     */
+    public RateLimiter get(Object key, int permits, Duration period) {
+        if (key == null)
+            throw new IllegalArgumentException("Rate limit key must not be null.");
+
+        RateLimiter rateLimiter = this.rateLimiters.get(key);
+        if (rateLimiter != null)
+            return rateLimiter;
+
+        var created = new RateLimiter(permits, period);
+        if (this.rateLimiters.size() >= MAX_RATE_LIMITERS && !sweep())
+            return overflow(created);
+
+        return this.rateLimiters.computeIfAbsent(key, ignored -> created);
+    }
+
+    private boolean sweep() {
+        long now = System.nanoTime();
+        if (now - this.nextSweep < 0)
+            return false;
+
+        this.nextSweep = now + SWEEP_INTERVAL_NANOS;
+        this.rateLimiters.values().removeIf(RateLimiter::isFull);
+        return this.rateLimiters.size() < MAX_RATE_LIMITERS;
+    }
+
+    private RateLimiter overflow(RateLimiter created) {
+        RateLimiter overflow = this.overflow;
+        if (overflow != null)
+            return overflow;
+
+        synchronized (this) {
+            if (this.overflow == null) {
+                this.overflow = created;
+            }
+
+            return this.overflow;
+        }
+    }
+}
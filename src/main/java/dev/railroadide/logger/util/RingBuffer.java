@@ -0,0 +1,230 @@
+package dev.railroadide.logger.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, lock-free queue backed by a preallocated array.
+ * Any number of threads can offer and poll concurrently; every slot carries a sequence number that tells producers
+ * and consumers whether it is free to write or ready to read, so no nodes are allocated per element.
+ * <p>
+ * A buffer can also be filled with reusable elements up front. Producers then {@link #claim() claim} a slot, fill in
+ * its element and {@link #publish(long) publish} it, and consumers {@link #take() take} a slot, read its element and
+ * {@link #release(long) release} it, so the elements themselves are never allocated or discarded either.
+ * {@link #offer(Object)} and {@link #poll()} must not be used on such a buffer.
+ *
+ * @param <E> The type of elements held in the buffer.
+ */
+public final class RingBuffer<E> {
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Creates a ring buffer with at least the given capacity.
+     * The capacity is rounded up to the next power of two.
+     *
+     * @param capacity The minimum capacity of the buffer.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Ring buffer capacity must be greater than 0.");
+
+        int size = roundUpCapacity(capacity);
+        this.mask = size - 1;
+        this.elements = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Creates a ring buffer with at least the given capacity, filling every slot with a reusable element.
+     * The capacity is rounded up to the next power of two.
+     *
+     * @param capacity The minimum capacity of the buffer.
+     * @param factory  Creates the element of each slot.
+     */
+    public RingBuffer(int capacity, Supplier<? extends E> factory) {
+        this(capacity);
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = factory.get();
+        }
+    }
+
+    /**
+     * Rounds a requested capacity up to the capacity a ring buffer would actually have.
+     *
+     * @param capacity The requested capacity.
+     * @return The next power of two that is greater than or equal to the requested capacity.
+     */
+    public static int roundUpCapacity(int capacity) {
+        if (capacity > 1 << 30)
+            throw new IllegalArgumentException("Ring buffer capacity must not be greater than 2^30.");
+
+        return capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * Adds an element to the buffer if there is space for it.
+     *
+     * @param element The element to add.
+     * @return true if the element was added, false if the buffer is full.
+     */
+    public boolean offer(E element) {
+        if (element == null)
+            throw new IllegalArgumentException("Ring buffer elements must not be null.");
+
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element from the buffer.
+     *
+     * @return The oldest element, or null if the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    var element = (E) elements[index];
+                    elements[index] = null;
+                    sequences.set(index, position + mask + 1);
+                    return element;
+                }
+
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Claims the next free slot of a preallocated buffer for writing.
+     *
+     * @return The position of the claimed slot, or -1 if the buffer is full.
+     */
+    public long claim() {
+        long position = tail.get();
+        while (true) {
+            long difference = sequences.get((int) position & mask) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1))
+                    return position;
+
+                position = tail.get();
+            } else if (difference < 0) {
+                return -1;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Makes a claimed slot available to consumers, once its element has been filled in.
+     *
+     * @param position The position returned by {@link #claim()}.
+     */
+    public void publish(long position) {
+        sequences.set((int) position & mask, position + 1);
+    }
+
+    /**
+     * Takes the oldest published slot of a preallocated buffer for reading.
+     *
+     * @return The position of the taken slot, or -1 if the buffer is empty.
+     */
+    public long take() {
+        long position = head.get();
+        while (true) {
+            long difference = sequences.get((int) position & mask) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1))
+                    return position;
+
+                position = head.get();
+            } else if (difference < 0) {
+                return -1;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Makes a taken slot available to producers again, once its element has been read.
+     *
+     * @param position The position returned by {@link #take()}.
+     */
+    public void release(long position) {
+        sequences.set((int) position & mask, position + mask + 1);
+    }
+
+    /**
+     * Gets the element of a claimed or taken slot.
+     *
+     * @param position The position of the slot.
+     * @return The element of the slot.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long position) {
+        return (E) elements[(int) position & mask];
+    }
+
+    /**
+     * Gets the approximate number of elements in the buffer.
+     *
+     * @return The number of elements in the buffer.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+    /**
+     * Checks whether the buffer is empty.
+     *
+     * @return true if the buffer holds no elements, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Gets the capacity of the buffer.
+     *
+     * @return The maximum number of elements the buffer can hold.
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,278 @@
+package dev.railroadide.logger.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the stack traces of throwables in the layout of {@link Throwable#printStackTrace()}, with a few additions
+ * that keep traces short and cheap to render:
+ * <ul>
+ *     <li>At most a maximum number of frames is printed per throwable, followed by {@code ... N more}.</li>
+ *     <li>Frames of filtered packages, such as reflection or framework internals, are folded into
+ *     {@code ... N filtered frames}.</li>
+ *     <li>Frames a cause or suppressed throwable shares with the throwable that encloses it are folded into
+ *     {@code ... N common frames omitted}.</li>
+ * </ul>
+ * The frames of each throwable are rendered once per distinct stack trace and cached, so the same failure being logged
+ * over and over only costs a lookup. The first line of each throwable is rendered every time, since it usually
+ * contains a message that differs between occurrences. Rendered frames are cached up to a fixed number of distinct
+ * stack traces, after which new stack traces are rendered on every call instead of growing the cache.
+ */
+public final class ThrowableRenderer {
+    private static final ThrowableRenderer DEFAULT = builder().build();
+
+    private final int maxDepth;
+    private final String[] filteredPackages;
+    private final int maxCachedTraces;
+    private final Map<FramesKey, String> cache = new ConcurrentHashMap<>();
+
+    private ThrowableRenderer(Builder builder) {
+        this.maxDepth = builder.maxDepth;
+        this.filteredPackages = builder.filteredPackages.toArray(new String[0]);
+        this.maxCachedTraces = builder.maxCachedTraces;
+    }
+
+    /**
+     * Gets a renderer that prints every frame and filters nothing.
+     *
+     * @return The default renderer.
+     */
+    public static ThrowableRenderer defaultRenderer() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a builder for a renderer.
+     *
+     * @return A new Builder instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Renders the stack trace of a throwable, including its causes and suppressed throwables, into the given builder.
+     * Every line, including the last one, ends with a line feed.
+     *
+     * @param throwable The throwable to render.
+     * @param builder   The builder to append to.
+     * @return The builder, for chaining.
+     */
+    public StringBuilder render(Throwable throwable, StringBuilder builder) {
+        // Guard against cause loops, the same way printStackTrace does
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        renderThrowable(throwable, new StackTraceElement[0], "", "", seen, builder);
+        return builder;
+    }
+
+    /**
+     * Gets the number of distinct stack traces whose frames are currently cached.
+     *
+     * @return The number of cached stack traces.
+     */
+    public int getCachedTraceCount() {
+        return cache.size();
+    }
+
+    private void renderThrowable(Throwable throwable, StackTraceElement[] enclosingTrace, String caption, String prefix,
+                                 Set<Throwable> seen, StringBuilder builder) {
+        if (!seen.add(throwable)) {
+            builder.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ").append(throwable).append("]\n");
+            return;
+        }
+
+        StackTraceElement[] trace = throwable.getStackTrace();
+        builder.append(prefix).append(caption).append(throwable).append('\n');
+        builder.append(frames(trace, enclosingTrace, prefix));
+
+        for (Throwable suppressed : throwable.getSuppressed()) {
+            renderThrowable(suppressed, trace, "Suppressed: ", prefix + "\t", seen, builder);
+        }
+
+        Throwable cause = throwable.getCause();
+        if (cause != null) {
+            renderThrowable(cause, trace, "Caused by: ", prefix, seen, builder);
+        }
+    }
+
+    private String frames(StackTraceElement[] trace, StackTraceElement[] enclosingTrace, String prefix) {
+        // Frames at the bottom of the trace that match the enclosing trace were already printed with it
+        int last = trace.length - 1;
+        int enclosingLast = enclosingTrace.length - 1;
+        while (last >= 0 && enclosingLast >= 0 && trace[last].equals(enclosingTrace[enclosingLast])) {
+            last--;
+            enclosingLast--;
+        }
+
+        var key = new FramesKey(trace, trace.length - 1 - last, prefix);
+        String frames = cache.get(key);
+        if (frames != null)
+            return frames;
+
+        frames = renderFrames(trace, last + 1, key.framesInCommon, prefix);
+        if (cache.size() < maxCachedTraces) {
+            cache.putIfAbsent(key, frames);
+        }
+
+        return frames;
+    }
+
+    private String renderFrames(StackTraceElement[] trace, int uniqueFrames, int framesInCommon, String prefix) {
+        var builder = new StringBuilder(uniqueFrames * 64);
+        int printed = 0;
+        int filtered = 0;
+        for (int i = 0; i < uniqueFrames; i++) {
+            StackTraceElement frame = trace[i];
+            if (isFiltered(frame)) {
+                filtered++;
+                continue;
+            }
+
+            if (printed == maxDepth) {
+                appendFiltered(builder, prefix, filtered);
+                builder.append(prefix).append("\t... ").append(uniqueFrames - i).append(" more\n");
+                filtered = 0;
+                break;
+            }
+
+            appendFiltered(builder, prefix, filtered);
+            filtered = 0;
+            builder.append(prefix).append("\tat ").append(frame).append('\n');
+            printed++;
+        }
+
+        appendFiltered(builder, prefix, filtered);
+        if (framesInCommon > 0) {
+            builder.append(prefix).append("\t... ").append(framesInCommon).append(" common frames omitted\n");
+        }
+
+        return builder.toString();
+    }
+
+    private boolean isFiltered(StackTraceElement frame) {
+        String className = frame.getClassName();
+        for (String filteredPackage : filteredPackages) {
+            if (className.startsWith(filteredPackage))
+                return true;
+        }
+
+        return false;
+    }
+
+    private static void appendFiltered(StringBuilder builder, String prefix, int filtered) {
+        if (filtered > 0) {
+            builder.append(prefix).append("\t... ").append(filtered).append(filtered == 1 ? " filtered frame\n" : " filtered frames\n");
+        }
+    }
+
+    /**
+     * Identifies the rendered frames of a throwable by its stack trace, the number of frames it shares with the
+     * throwable enclosing it, and the indentation it is rendered with.
+     */
+    private static final class FramesKey {
+        private final StackTraceElement[] trace;
+        private final int framesInCommon;
+        private final String prefix;
+        private final int hash;
+
+        private FramesKey(StackTraceElement[] trace, int framesInCommon, String prefix) {
+            this.trace = trace;
+            this.framesInCommon = framesInCommon;
+            this.prefix = prefix;
+            this.hash = (Arrays.hashCode(trace) * 31 + framesInCommon) * 31 + prefix.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (this == object)
+                return true;
+
+            if (!(object instanceof FramesKey other))
+                return false;
+
+            return hash == other.hash
+                    && framesInCommon == other.framesInCommon
+                    && prefix.equals(other.prefix)
+                    && Arrays.equals(trace, other.trace);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Builder for creating a ThrowableRenderer instance.
+     */
+    public static class Builder {
+        private int maxDepth = Integer.MAX_VALUE;
+        private final List<String> filteredPackages = new ArrayList<>();
+        private int maxCachedTraces = 1024;
+
+        Builder() {
+        }
+
+        /**
+         * Sets the maximum number of frames printed per throwable, not counting filtered and common frames.
+         *
+         * @param maxDepth The maximum number of frames.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Adds packages whose frames are folded into a count instead of being printed.
+         * A package also covers its subpackages, so {@code "jdk.internal"} filters {@code jdk.internal.reflect} frames
+         * as well.
+         *
+         * @param packages The names of the packages to filter.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder filterPackages(String... packages) {
+            for (String filteredPackage : packages) {
+                if (filteredPackage == null || filteredPackage.isBlank())
+                    throw new IllegalArgumentException("Filtered package must not be null or empty.");
+
+                this.filteredPackages.add(filteredPackage.endsWith(".") ? filteredPackage : filteredPackage + ".");
+            }
+
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of distinct stack traces whose rendered frames are cached.
+         *
+         * @param maxCachedTraces The maximum number of cached stack traces, or 0 to disable the cache.
+         * @return This Builder instance for method chaining.
+         */
+        public Builder maxCachedTraces(int maxCachedTraces) {
+            this.maxCachedTraces = maxCachedTraces;
+            return this;
+        }
+
+        /**
+         * Builds the ThrowableRenderer instance with the specified configuration.
+         *
+         * @return A new ThrowableRenderer instance.
+         */
+        public ThrowableRenderer build() {
+            if (maxDepth <= 0)
+                throw new IllegalArgumentException("Maximum depth must be greater than 0.");
+
+            if (maxCachedTraces < 0)
+                throw new IllegalArgumentException("Maximum cached traces must be greater than or equal to 0.");
+
+            return new ThrowableRenderer(this);
+        }
+    }
+}
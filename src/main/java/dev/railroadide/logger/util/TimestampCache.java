@@ -0,0 +1,110 @@
+package dev.railroadide.logger.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+
+/**
+ * Caches the formatted {@code HH:mm:ss} time of the current second.
+ * Log lines within the same second share the cached text, and only their sub-second part has to be rendered.
+ * When the second rolls over, the next caller formats the new second and publishes it without locking.
+ */
+public final class TimestampCache {
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final ZoneRules zoneRules;
+    private volatile Second current;
+
+    /**
+     * Creates a timestamp cache that formats times in the given time zone.
+     *
+     * @param zone The time zone to format times in.
+     */
+    public TimestampCache(ZoneId zone) {
+        this.zoneRules = zone.getRules();
+        this.current = format(0);
+    }
+
+    /**
+     * Gets the formatted second containing the given timestamp.
+     *
+     * @param epochNanos The timestamp in nanoseconds since the epoch.
+     * @return The formatted second.
+     */
+    public Second get(long epochNanos) {
+        long epochSecond = Math.floorDiv(epochNanos, 1_000_000_000L);
+        Second second = this.current;
+        if (second.epochSecond == epochSecond)
+            return second;
+
+        // Racing threads may format the same second twice, but every published value is complete and correct
+        second = format(epochSecond);
+        this.current = second;
+        return second;
+    }
+
+    private Second format(long epochSecond) {
+        int offset = zoneRules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        int secondOfDay = Math.floorMod(epochSecond + offset, SECONDS_PER_DAY);
+
+        int hours = secondOfDay / 3600;
+        int minutes = secondOfDay / 60 % 60;
+        int seconds = secondOfDay % 60;
+        char[] text = {
+                (char) ('0' + hours / 10), (char) ('0' + hours % 10), ':',
+                (char) ('0' + minutes / 10), (char) ('0' + minutes % 10), ':',
+                (char) ('0' + seconds / 10), (char) ('0' + seconds % 10)
+        };
+
+        return new Second(epochSecond, text);
+    }
+
+    /**
+     * A second formatted as {@code HH:mm:ss}.
+     */
+    public static final class Second {
+        private final long epochSecond;
+        private final char[] text;
+
+        private Second(long epochSecond, char[] text) {
+            this.epochSecond = epochSecond;
+            this.text = text;
+        }
+
+        /**
+         * Appends the full {@code HH:mm:ss} text.
+         *
+         * @param builder The builder to append to.
+         */
+        public void appendTime(StringBuilder builder) {
+            builder.append(text, 0, 8);
+        }
+
+        /**
+         * Appends the two-digit hours.
+         *
+         * @param builder The builder to append to.
+         */
+        public void appendHours(StringBuilder builder) {
+            builder.append(text, 0, 2);
+        }
+
+        /**
+         * Appends the two-digit minutes.
+         *
+         * @param builder The builder to append to.
+         */
+        public void appendMinutes(StringBuilder builder) {
+            builder.append(text, 3, 2);
+        }
+
+        /**
+         * Appends the two-digit seconds.
+         *
+         * @param builder The builder to append to.
+         */
+        public void appendSeconds(StringBuilder builder) {
+            builder.append(text, 6, 2);
+        }
+    }
+}
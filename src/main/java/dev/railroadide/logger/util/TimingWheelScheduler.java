@@ -0,0 +1,293 @@
+package dev.railroadide.logger.util;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * A scheduler that runs any number of variable rate tasks on a single thread, using a hashed timing wheel.
+ * <p>
+ * The wheel is an array of buckets, each covering one tick. A task is linked into the bucket its deadline falls in,
+ * together with the number of full turns of the wheel left before it is due, so scheduling, rescheduling and
+ * cancelling a task are all constant time and allocate nothing. The price is precision: a task runs at the end of the
+ * tick its deadline falls in, so it can be up to one tick late.
+ * <p>
+ * The thread only ticks while at least one task is scheduled, and sleeps until a task is scheduled otherwise.
+ */
+public final class TimingWheelScheduler {
+    private final Object lock = new Object();
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long tickNanos;
+    private final long startTime;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    // Guarded by the lock
+    private long tick;
+    private int scheduledTasks;
+
+    /**
+     * Constructs a TimingWheelScheduler and starts its thread.
+     *
+     * @param tickDuration The duration of a tick, which is the precision tasks are run with.
+     * @param unit         The time unit of the tick duration.
+     * @param wheelSize    The number of buckets in the wheel, rounded up to the next power of two. Delays up to the
+     *                     tick duration times the wheel size are due within the first turn of the wheel.
+     */
+    public TimingWheelScheduler(long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0)
+            throw new IllegalArgumentException("Tick duration must be greater than 0.");
+
+        if (wheelSize <= 0)
+            throw new IllegalArgumentException("Wheel size must be greater than 0.");
+
+        int size = RingBuffer.roundUpCapacity(wheelSize);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+
+        this.mask = size - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.startTime = System.nanoTime();
+        this.thread = new BasicThreadFactory.Builder()
+                .namingPattern("RailroadLogger-Timer-%d")
+                .daemon(true)
+                .build()
+                .newThread(this::runWheel);
+        this.thread.start();
+    }
+
+    /**
+     * Schedules a task to run at a variable rate, where the delay between executions is determined by the provided
+     * delay supplier. The task stops being rescheduled once the supplier returns a delay of 0 or less, or once it is
+     * cancelled through the returned handle.
+     * <p>
+     * Tasks run on the scheduler's thread, one after another, so they should be short.
+     *
+     * @param task          The task to run.
+     * @param initialDelay  The initial delay before the first execution, in milliseconds.
+     * @param delaySupplier A supplier that provides the delay for subsequent executions, in milliseconds.
+     * @return A handle that can be used to cancel the task.
+     */
+    public ScheduledTask scheduleAtVariableRate(Runnable task, long initialDelay, LongSupplier delaySupplier) {
+        if (task == null)
+            throw new IllegalArgumentException("Task must not be null.");
+
+        if (delaySupplier == null)
+            throw new IllegalArgumentException("Delay supplier must not be null.");
+
+        var scheduledTask = new ScheduledTask(this, task, delaySupplier);
+        schedule(scheduledTask, TimeUnit.MILLISECONDS.toNanos(initialDelay));
+        return scheduledTask;
+    }
+
+    /**
+     * Gets the number of tasks currently waiting in the wheel.
+     *
+     * @return The number of scheduled tasks.
+     */
+    public int getScheduledTaskCount() {
+        synchronized (lock) {
+            return scheduledTasks;
+        }
+    }
+
+    /**
+     * Shuts down the scheduler, stopping any further task execution.
+     */
+    public void shutdown() {
+        running = false;
+        synchronized (lock) {
+            lock.notifyAll();
+        }
+
+        LockSupport.unpark(thread);
+    }
+
+    private void schedule(ScheduledTask task, long delayNanos) {
+        synchronized (lock) {
+            if (!running || task.cancelled)
+                return;
+
+            long now = System.nanoTime();
+            if (scheduledTasks == 0) {
+                // The wheel stops ticking while it is empty, so catch it up to the current time first
+                tick = Math.max(tick, (now - startTime) / tickNanos);
+            }
+
+            long dueTick = Math.max((now + Math.max(0, delayNanos) - startTime) / tickNanos, tick);
+            task.remainingRounds = (dueTick - tick) / wheel.length;
+            wheel[(int) dueTick & mask].add(task);
+            if (scheduledTasks++ == 0) {
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void cancel(ScheduledTask task) {
+        synchronized (lock) {
+            task.cancelled = true;
+            if (task.bucket != null) {
+                task.bucket.remove(task);
+                scheduledTasks--;
+            }
+        }
+    }
+
+    private void runWheel() {
+        while (running) {
+            long deadline;
+            synchronized (lock) {
+                while (running && scheduledTasks == 0) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException exception) {
+                        return;
+                    }
+                }
+
+                deadline = startTime + (tick + 1) * tickNanos;
+            }
+
+            long delay;
+            while (running && (delay = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, delay);
+            }
+
+            ScheduledTask expired;
+            synchronized (lock) {
+                // Scheduling into an empty wheel may have moved it on while we slept
+                if (deadline != startTime + (tick + 1) * tickNanos)
+                    continue;
+
+                expired = wheel[(int) tick & mask].expire();
+                tick++;
+            }
+
+            while (expired != null) {
+                ScheduledTask next = expired.next;
+                expired.next = null;
+                expired.run();
+                expired = next;
+            }
+        }
+    }
+
+    /**
+     * A task scheduled at a variable rate on a timing wheel, which can be cancelled in constant time.
+     */
+    public static final class ScheduledTask {
+        private final TimingWheelScheduler scheduler;
+        private final Runnable task;
+        private final LongSupplier delaySupplier;
+        private volatile boolean cancelled;
+
+        // Guarded by the scheduler's lock while the task is in a bucket
+        private Bucket bucket;
+        private ScheduledTask previous;
+        private ScheduledTask next;
+        private long remainingRounds;
+
+        private ScheduledTask(TimingWheelScheduler scheduler, Runnable task, LongSupplier delaySupplier) {
+            this.scheduler = scheduler;
+            this.task = task;
+            this.delaySupplier = delaySupplier;
+        }
+
+        /**
+         * Cancels the task. A run that is already in progress is allowed to finish, but the task is not run again.
+         */
+        public void cancel() {
+            scheduler.cancel(this);
+        }
+
+        /**
+         * Checks whether the task has been cancelled.
+         *
+         * @return true if the task has been cancelled, false otherwise.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void run() {
+            if (cancelled)
+                return;
+
+            try {
+                task.run();
+            } catch (RuntimeException exception) {
+                System.err.println("Scheduled task failed: " + exception.getMessage());
+            } finally {
+                // Compute the next delay and re-submit ourselves
+                long nextDelay = delaySupplier.getAsLong();
+                if (nextDelay > 0) {
+                    scheduler.schedule(this, TimeUnit.MILLISECONDS.toNanos(nextDelay));
+                }
+            }
+        }
+    }
+
+    /**
+     * The tasks due in one slot of the wheel, as an intrusive doubly linked list.
+     */
+    private final class Bucket {
+        private ScheduledTask head;
+
+        private void add(ScheduledTask task) {
+            task.bucket = this;
+            task.previous = null;
+            task.next = head;
+            if (head != null) {
+                head.previous = task;
+            }
+
+            head = task;
+        }
+
+        private void remove(ScheduledTask task) {
+            if (task.previous != null) {
+                task.previous.next = task.next;
+            } else {
+                head = task.next;
+            }
+
+            if (task.next != null) {
+                task.next.previous = task.previous;
+            }
+
+            task.bucket = null;
+            task.previous = null;
+            task.next = null;
+        }
+
+        /**
+         * Unlinks every task that is due this turn of the wheel, and counts down the rounds of the others.
+         *
+         * @return The first due task, with the others linked through {@link ScheduledTask#next}.
+         */
+        private ScheduledTask expire() {
+            ScheduledTask expired = null;
+            ScheduledTask task = head;
+            while (task != null) {
+                ScheduledTask next = task.next;
+                if (task.remainingRounds <= 0) {
+                    remove(task);
+                    scheduledTasks--;
+                    task.next = expired;
+                    expired = task;
+                } else {
+                    task.remainingRounds--;
+                }
+
+                task = next;
+            }
+
+            return expired;
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package dev.railroadide.logger.util;
 
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.function.LongSupplier;
 
 /**
  * A scheduler that allows scheduling tasks at a variable rate, where the delay between executions can change dynamically.
  * This is useful for tasks that need to adapt their execution frequency based on runtime conditions.
+ * <p>
+ * Each scheduled task is a single object that reschedules itself after every run, so ticking allocates nothing beyond
+ * what the underlying executor needs to queue the next run.
  */
 public class VariableRateScheduler {
     private final ScheduledExecutorService exec;
@@ -22,18 +27,24 @@ public class VariableRateScheduler {
 
     /**
      * Schedules a task to run at a variable rate, where the delay between executions is determined by the provided
-     * delay supplier.
+     * delay supplier. The task stops being rescheduled once the supplier returns a delay of 0 or less, or once it is
+     * cancelled through the returned handle.
      *
-     * @param task           The task to run.
-     * @param initialDelay   The initial delay before the first execution.
-     * @param delaySupplier  A supplier that provides the delay for subsequent executions.
+     * @param task          The task to run.
+     * @param initialDelay  The initial delay before the first execution, in milliseconds.
+     * @param delaySupplier A supplier that provides the delay for subsequent executions, in milliseconds.
+     * @return A handle that can be used to cancel the task.
      */
-    public void scheduleAtVariableRate(Runnable task, long initialDelay, Supplier<Long> delaySupplier) {
-        // Wrap the user’s task so that when it completes, we schedule the next one
-        Runnable wrapper = new RunTask(task, initialDelay, delaySupplier);
+    public ScheduledTask scheduleAtVariableRate(Runnable task, long initialDelay, LongSupplier delaySupplier) {
+        if (task == null)
+            throw new IllegalArgumentException("Task must not be null.");
 
-        // Schedule the first execution
-        exec.schedule(wrapper, initialDelay, TimeUnit.MILLISECONDS);
+        if (delaySupplier == null)
+            throw new IllegalArgumentException("Delay supplier must not be null.");
+
+        var scheduledTask = new ScheduledTask(exec, task, delaySupplier);
+        scheduledTask.schedule(initialDelay);
+        return scheduledTask;
     }
 
     /**
@@ -43,29 +54,74 @@ public class VariableRateScheduler {
         exec.shutdown();
     }
 
-    private class RunTask implements Runnable {
+    /**
+     * A task scheduled at a variable rate, which can be cancelled without shutting down the whole scheduler.
+     */
+    public static final class ScheduledTask implements Runnable {
+        private final ScheduledExecutorService exec;
         private final Runnable task;
-        private final long initialDelay;
-        private final Supplier<Long> delaySupplier;
+        private final LongSupplier delaySupplier;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean cancelled;
 
-        public RunTask(Runnable task, long initialDelay, Supplier<Long> delaySupplier) {
+        private ScheduledTask(ScheduledExecutorService exec, Runnable task, LongSupplier delaySupplier) {
+            this.exec = exec;
             this.task = task;
-            this.initialDelay = initialDelay;
             this.delaySupplier = delaySupplier;
         }
 
         @Override
         public void run() {
+            if (cancelled)
+                return;
+
             try {
                 task.run();
             } finally {
                 // Compute the next delay and re-submit ourselves
-                long nextDelay = delaySupplier.get();
+                long nextDelay = delaySupplier.getAsLong();
                 if (nextDelay > 0) {
-                    // Reschedule the task with the next delay
-                    new VariableRateScheduler(exec).scheduleAtVariableRate(task, initialDelay, delaySupplier);
+                    schedule(nextDelay);
                 }
             }
         }
+
+        /**
+         * Cancels the task. A run that is already in progress is allowed to finish, but the task is not run again.
+         */
+        public void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> current = this.future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+
+        /**
+         * Checks whether the task has been cancelled.
+         *
+         * @return true if the task has been cancelled, false otherwise.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void schedule(long delay) {
+            if (cancelled)
+                return;
+
+            try {
+                this.future = exec.schedule(this, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException exception) {
+                // The executor has been shut down, so there is nothing left to reschedule on
+                cancelled = true;
+                return;
+            }
+
+            // A cancel that raced with the reschedule may have missed the new future
+            if (cancelled) {
+                this.future.cancel(false);
+            }
+        }
     }
 }
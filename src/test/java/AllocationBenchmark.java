@@ -0,0 +1,80 @@
+import dev.railroadide.logger.Logger;
+import dev.railroadide.logger.LoggerManager;
+import dev.railroadide.logger.LoggingLevel;
+import dev.railroadide.logger.OverflowPolicy;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how many bytes are allocated per call to a disabled log level, for each of the logging overloads, and per
+ * call to an enabled log level, where only the finished log line and its queue entry should be left, with the message
+ * formatted either on the logging thread or deferred to the writer.
+ */
+public class AllocationBenchmark {
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+
+    public static void main(String[] args) {
+        Logger logger = LoggerManager.create(AllocationBenchmark.class)
+                .dontLogToLatest()
+                .loggingLevel(LoggingLevel.ERROR)
+                .build();
+
+        Object first = "first";
+        Object second = "second";
+        Object third = "third";
+        long longValue = 123_456_789L;
+
+        measure("debug(String)", () -> logger.debug("Disabled message"));
+        measure("debug(String, Object)", () -> logger.debug("Disabled message {}", first));
+        measure("debug(String, Object, Object)", () -> logger.debug("Disabled message {} {}", first, second));
+        measure("debug(String, Object, Object, Object)", () -> logger.debug("Disabled message {} {} {}", first, second, third));
+        measure("debug(String, long)", () -> logger.debug("Disabled message {}", longValue));
+        measure("debug(String, int)", () -> logger.debug("Disabled message {}", 42));
+        measure("debug(String, double)", () -> logger.debug("Disabled message {}", 4.2));
+        measure("debug(String, boolean)", () -> logger.debug("Disabled message {}", true));
+        measure("debug(String, Object...)", () -> logger.debug("Disabled message {} {} {} {}", first, second, third, longValue));
+
+        // Nothing drains the queue of a logger that isn't initialized, so each message replaces the previous one
+        Logger enabledLogger = LoggerManager.create("AllocationBenchmarkEnabled")
+                .dontLogToLatest()
+                .loggingLevel(LoggingLevel.ERROR)
+                .fileLoggingLevel(LoggingLevel.DEBUG)
+                .queueCapacity(1)
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST)
+                .build();
+
+        measure("enabled info(String)", () -> enabledLogger.info("Enabled message"));
+        measure("enabled info(String, Object)", () -> enabledLogger.info("Enabled message {}", first));
+        measure("enabled info(String, Object, Object, Object)", () -> enabledLogger.info("Enabled message {} {} {}", first, second, third));
+
+        Logger deferredLogger = LoggerManager.create("AllocationBenchmarkDeferred")
+                .dontLogToLatest()
+                .loggingLevel(LoggingLevel.ERROR)
+                .fileLoggingLevel(LoggingLevel.DEBUG)
+                .queueCapacity(1)
+                .overflowPolicy(OverflowPolicy.DROP_OLDEST)
+                .deferFormatting(true)
+                .build();
+
+        measure("deferred info(String, Object)", () -> deferredLogger.info("Deferred message {}", first));
+        measure("deferred info(String, Object, Object, Object)", () -> deferredLogger.info("Deferred message {} {} {}", first, second, third));
+    }
+
+    private static void measure(String name, Runnable call) {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call.run();
+        }
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            call.run();
+        }
+
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+        System.out.printf("%-40s %8.2f bytes/op%n", name, (double) allocated / MEASURED_ITERATIONS);
+    }
+}
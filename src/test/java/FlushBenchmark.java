@@ -0,0 +1,43 @@
+import dev.railroadide.logger.LoggerManager;
+import dev.railroadide.logger.LoggingLevel;
+import dev.railroadide.logger.impl.DefaultLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Measures how long a single flush takes depending on the number of messages waiting to be written.
+ */
+public class FlushBenchmark {
+    private static final int[] BACKLOG_SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        Path logDirectory = Files.createTempDirectory("flush-benchmark");
+
+        for (int backlog : BACKLOG_SIZES) {
+            DefaultLogger logger = LoggerManager.create("FlushBenchmark" + backlog)
+                    .logDirectory(logDirectory)
+                    .loggingLevel(LoggingLevel.ERROR)
+                    .fileLoggingLevel(LoggingLevel.INFO)
+                    .queueCapacity(backlog)
+                    .build();
+
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int i = 0; i < backlog; i++) {
+                    logger.info("Benchmark message number {} of {}", i, backlog);
+                }
+
+                long start = System.nanoTime();
+                logger.flush();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+
+            System.out.printf("backlog %,9d: %8.2f ms per flush, %6.1f ns per message%n",
+                    backlog, best / 1_000_000.0, (double) best / backlog);
+            LoggerManager.unregisterLogger(logger);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+import dev.railroadide.logger.Logger;
+import dev.railroadide.logger.LoggerManager;
+import dev.railroadide.logger.LoggingLevel;
+
+import java.time.Duration;
+
+/**
+ * Measures how long a rate limited log call takes once its rate is used up, which is what a hot loop pays for nearly
+ * every call, for each way of getting a rate limited logger.
+ */
+public class RateLimitBenchmark {
+    private static final int WARMUP_ITERATIONS = 1_000_000;
+    private static final int MEASURED_ITERATIONS = 5_000_000;
+
+    public static void main(String[] args) {
+        Logger logger = LoggerManager.create(RateLimitBenchmark.class)
+                .dontLogToLatest()
+                .loggingLevel(LoggingLevel.ERROR)
+                .fileLoggingLevel(LoggingLevel.WARN)
+                .build();
+
+        Object value = "value";
+        Logger field = logger.every(Duration.ofHours(1));
+        measure("rate limited logger in a field", () -> field.warn("Hot loop warning {}", value));
+        measure("every(key, Duration)", () -> logger.every("hot-loop", Duration.ofHours(1)).warn("Hot loop warning {}", value));
+        measure("every(Duration)", () -> logger.every(Duration.ofHours(1)).warn("Hot loop warning {}", value));
+        measure("atMostPerSecond(int)", () -> logger.atMostPerSecond(1).warn("Hot loop warning {}", value));
+    }
+
+    private static void measure(String name, Runnable call) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            call.run();
+        }
+
+        System.out.printf("%-35s %8.2f ns/op%n", name, (double) (System.nanoTime() - start) / MEASURED_ITERATIONS);
+    }
+}
@@ -0,0 +1,54 @@
+import dev.railroadide.logger.Logger;
+import dev.railroadide.logger.LoggerManager;
+import dev.railroadide.logger.LoggingLevel;
+import dev.railroadide.logger.RateLimitedLogger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that a rate limited logger refuses messages before anything is formatted, including messages built by
+ * suppliers, and that it counts the messages it refuses.
+ */
+public class RateLimitedLoggerTest {
+    private static final int CALLS = 1_000;
+
+    public static void main(String[] args) {
+        Logger logger = LoggerManager.create(RateLimitedLoggerTest.class)
+                .dontLogToLatest()
+                .loggingLevel(LoggingLevel.ERROR)
+                .fileLoggingLevel(LoggingLevel.WARN)
+                .build();
+
+        var messageSuppliers = new AtomicInteger();
+        for (int i = 0; i < CALLS; i++) {
+            logger.every("message supplier", Duration.ofHours(1)).warnLazy(() -> "Built " + messageSuppliers.incrementAndGet());
+        }
+
+        check("message supplier", messageSuppliers.get(), 1);
+
+        var argumentSuppliers = new AtomicInteger();
+        for (int i = 0; i < CALLS; i++) {
+            logger.every("argument supplier", Duration.ofHours(1)).log(LoggingLevel.WARN, "Built {}", argumentSuppliers::incrementAndGet);
+        }
+
+        check("argument supplier", argumentSuppliers.get(), 1);
+
+        var denied = (RateLimitedLogger) logger.every("message supplier", Duration.ofHours(1));
+        check("denied messages", denied.getDeniedMessages(), CALLS - 1);
+
+        // Levels that are not logged neither run their suppliers nor use up the rate
+        var debugSuppliers = new AtomicInteger();
+        Logger debug = logger.every("debug", Duration.ofHours(1));
+        debug.debugLazy(() -> "Built " + debugSuppliers.incrementAndGet());
+        check("debug supplier", debugSuppliers.get(), 0);
+        check("debug denied messages", ((RateLimitedLogger) debug).getDeniedMessages(), 0);
+
+        System.out.println("All checks passed");
+    }
+
+    private static void check(String name, long actual, long expected) {
+        if (actual != expected)
+            throw new AssertionError(name + ": expected " + expected + " but was " + actual);
+    }
+}
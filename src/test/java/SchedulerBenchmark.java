@@ -0,0 +1,108 @@
+import dev.railroadide.logger.util.VariableRateScheduler;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Measures the bytes allocated and the CPU time spent on the executor thread per tick of a variable rate task, for the
+ * previous scheduler that created a new wrapper on every tick and for the current one that reuses a single task.
+ */
+public class SchedulerBenchmark {
+    private static final int WARMUP_TICKS = 1_000;
+    private static final int MEASURED_TICKS = 2_000;
+    // Large enough that the boxed delays are not served from the Long cache
+    private static final long BOXED_DELAY_OFFSET = 1_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor();
+        try {
+            var previous = new Probe();
+            new PreviousScheduler(exec).scheduleAtVariableRate(previous, 1, () -> previous.getAsLong() == 0 ? 0L : BOXED_DELAY_OFFSET + previous.getAsLong());
+            previous.report("previous (new wrapper per tick, Supplier<Long>)");
+
+            var current = new Probe();
+            new VariableRateScheduler(exec).scheduleAtVariableRate(current, 1, current);
+            current.report("current (reused task, LongSupplier)");
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    private static final class Probe implements Runnable, LongSupplier {
+        private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int ticks;
+        private long startBytes;
+        private long startCpu;
+        private long endBytes;
+        private long endCpu;
+
+        @Override
+        public void run() {
+            ticks++;
+            if (ticks == WARMUP_TICKS) {
+                startBytes = threadBean.getCurrentThreadAllocatedBytes();
+                startCpu = threadBean.getCurrentThreadCpuTime();
+            } else if (ticks == WARMUP_TICKS + MEASURED_TICKS) {
+                endBytes = threadBean.getCurrentThreadAllocatedBytes();
+                endCpu = threadBean.getCurrentThreadCpuTime();
+                done.countDown();
+            }
+        }
+
+        @Override
+        public long getAsLong() {
+            return ticks < WARMUP_TICKS + MEASURED_TICKS ? 1 : 0;
+        }
+
+        private void report(String name) throws InterruptedException {
+            done.await();
+            System.out.printf("%-50s %8.2f bytes/tick %8.0f ns cpu/tick%n", name,
+                    (double) (endBytes - startBytes) / MEASURED_TICKS, (double) (endCpu - startCpu) / MEASURED_TICKS);
+        }
+    }
+
+    /**
+     * The scheduler as it was before tasks were reused, kept here as the baseline.
+     */
+    private static final class PreviousScheduler {
+        private final ScheduledExecutorService exec;
+
+        private PreviousScheduler(ScheduledExecutorService exec) {
+            this.exec = exec;
+        }
+
+        private void scheduleAtVariableRate(Runnable task, long initialDelay, Supplier<Long> delaySupplier) {
+            exec.schedule(new RunTask(task, initialDelay, delaySupplier), initialDelay, TimeUnit.MILLISECONDS);
+        }
+
+        private final class RunTask implements Runnable {
+            private final Runnable task;
+            private final long initialDelay;
+            private final Supplier<Long> delaySupplier;
+
+            private RunTask(Runnable task, long initialDelay, Supplier<Long> delaySupplier) {
+                this.task = task;
+                this.initialDelay = initialDelay;
+                this.delaySupplier = delaySupplier;
+            }
+
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    long nextDelay = delaySupplier.get();
+                    if (nextDelay > 0) {
+                        new PreviousScheduler(exec).scheduleAtVariableRate(task, initialDelay, delaySupplier);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import dev.railroadide.logger.util.ThrowableRenderer;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * Measures how long it takes to render the stack trace of the same failure over and over, with
+ * {@link Throwable#printStackTrace(PrintWriter)} and with a {@link ThrowableRenderer}, with and without a depth limit.
+ */
+public class ThrowableRendererBenchmark {
+    private static final int ITERATIONS = 20_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        ThrowableRenderer renderer = ThrowableRenderer.defaultRenderer();
+        ThrowableRenderer limited = ThrowableRenderer.builder()
+                .maxDepth(10)
+                .filterPackages("java.lang.reflect", "jdk.internal")
+                .build();
+
+        measure("printStackTrace", throwable -> {
+            var writer = new StringWriter();
+            throwable.printStackTrace(new PrintWriter(writer));
+            return writer.toString().length();
+        });
+        measure("ThrowableRenderer", throwable -> renderer.render(throwable, new StringBuilder()).length());
+        measure("ThrowableRenderer, depth 10", throwable -> limited.render(throwable, new StringBuilder()).length());
+    }
+
+    private static void measure(String name, Renderer renderer) {
+        long best = Long.MAX_VALUE;
+        long length = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            // A fresh failure each time, as a failing dependency would produce, created before the clock starts
+            var failures = new Throwable[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                failures[i] = fail(40);
+            }
+
+            long start = System.nanoTime();
+            for (Throwable failure : failures) {
+                length += renderer.render(failure);
+            }
+
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        System.out.printf("%-30s %8.2f us per trace (%d chars)%n", name, best / 1_000.0 / ITERATIONS, length / ROUNDS / ITERATIONS);
+    }
+
+    private static Throwable fail(int depth) {
+        if (depth > 0)
+            return fail(depth - 1);
+
+        try {
+            throw new IllegalStateException("Connection refused");
+        } catch (IllegalStateException exception) {
+            return new RuntimeException("Request failed", exception);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+        long render(Throwable throwable);
+    }
+}
@@ -0,0 +1,118 @@
+import dev.railroadide.logger.util.TimingWheelScheduler;
+import dev.railroadide.logger.util.VariableRateScheduler;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the timing wheel scheduler with the executor based scheduler, both running on a single thread.
+ * <ul>
+ *     <li>The cost of scheduling and cancelling a task while many other tasks are already scheduled.</li>
+ *     <li>The CPU time and bytes allocated on the scheduler thread per run, with many tasks running at variable rates.</li>
+ * </ul>
+ */
+public class TimingWheelBenchmark {
+    private static final int[] RESIDENT_TASKS = {1_000, 10_000, 100_000};
+    private static final int SCHEDULE_ITERATIONS = 500_000;
+    private static final int RUNNING_TASKS = 5_000;
+    private static final long RUN_MILLIS = 3_000;
+    private static final long HOUR_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    public static void main(String[] args) throws InterruptedException {
+        for (int resident : RESIDENT_TASKS) {
+            var executor = newExecutor();
+            var executorScheduler = new VariableRateScheduler(executor);
+            double executorNanos = measureScheduleAndCancel(resident, delay -> executorScheduler.scheduleAtVariableRate(() -> {}, delay, () -> 0)::cancel);
+            executor.shutdownNow();
+
+            var wheel = new TimingWheelScheduler(1, TimeUnit.MILLISECONDS, 512);
+            double wheelNanos = measureScheduleAndCancel(resident, delay -> wheel.scheduleAtVariableRate(() -> {}, delay, () -> 0)::cancel);
+            wheel.shutdown();
+
+            System.out.printf("schedule + cancel, %,7d resident tasks: executor %7.1f ns/op, timing wheel %7.1f ns/op%n",
+                    resident, executorNanos, wheelNanos);
+        }
+
+        var executor = newExecutor();
+        var executorScheduler = new VariableRateScheduler(executor);
+        measureRunning("executor", (task, delay) -> executorScheduler.scheduleAtVariableRate(task, delay, TimingWheelBenchmark::nextDelay));
+        executor.shutdownNow();
+
+        var wheel = new TimingWheelScheduler(1, TimeUnit.MILLISECONDS, 512);
+        measureRunning("timing wheel", (task, delay) -> wheel.scheduleAtVariableRate(task, delay, TimingWheelBenchmark::nextDelay));
+        wheel.shutdown();
+    }
+
+    private static ScheduledThreadPoolExecutor newExecutor() {
+        var executor = new ScheduledThreadPoolExecutor(1);
+        // Without this, cancelled tasks stay in the queue until their delay has passed
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    private static double measureScheduleAndCancel(int resident, Scheduler scheduler) {
+        List<Runnable> residents = new ArrayList<>(resident);
+        for (int i = 0; i < resident; i++) {
+            residents.add(scheduler.schedule(HOUR_MILLIS + i));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SCHEDULE_ITERATIONS; i++) {
+            scheduler.schedule(random.nextLong(60_000, HOUR_MILLIS)).run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SCHEDULE_ITERATIONS; i++) {
+            scheduler.schedule(random.nextLong(60_000, HOUR_MILLIS)).run();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        residents.forEach(Runnable::run);
+        return (double) elapsed / SCHEDULE_ITERATIONS;
+    }
+
+    private static void measureRunning(String name, RunningScheduler scheduler) throws InterruptedException {
+        var threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var runs = new AtomicLong();
+        var threadId = new AtomicLong(-1);
+        Runnable task = () -> {
+            runs.incrementAndGet();
+            threadId.compareAndSet(-1, Thread.currentThread().threadId());
+        };
+
+        for (int i = 0; i < RUNNING_TASKS; i++) {
+            scheduler.schedule(task, nextDelay());
+        }
+
+        // Warm up before measuring
+        Thread.sleep(RUN_MILLIS);
+        long id = threadId.get();
+        long startRuns = runs.get();
+        long startCpu = threadBean.getThreadCpuTime(id);
+        long startBytes = threadBean.getThreadAllocatedBytes(id);
+        Thread.sleep(RUN_MILLIS);
+        long measuredRuns = runs.get() - startRuns;
+        long cpu = threadBean.getThreadCpuTime(id) - startCpu;
+        long bytes = threadBean.getThreadAllocatedBytes(id) - startBytes;
+
+        System.out.printf("%,d tasks running, %-12s %,9d runs, %7.1f ns cpu/run, %6.1f bytes/run%n",
+                RUNNING_TASKS, name + ":", measuredRuns, (double) cpu / measuredRuns, (double) bytes / measuredRuns);
+    }
+
+    private static long nextDelay() {
+        return ThreadLocalRandom.current().nextLong(10, 100);
+    }
+
+    private interface Scheduler {
+        Runnable schedule(long delay);
+    }
+
+    private interface RunningScheduler {
+        void schedule(Runnable task, long delay);
+    }
+}
@@ -0,0 +1,100 @@
+import dev.railroadide.logger.util.VariableRateScheduler;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Checks that a task scheduled at a variable rate allocates nothing per tick beyond the executor's own cost of queueing
+ * the next run, and that it stops running once it is cancelled.
+ */
+public class VariableRateSchedulerTest {
+    private static final int WARMUP_TICKS = 500;
+    private static final int MEASURED_TICKS = 1_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        ScheduledExecutorService exec = Executors.newSingleThreadScheduledExecutor();
+        try {
+            double executorBytes = measureExecutorTick(exec);
+            double schedulerBytes = measureSchedulerTick(new VariableRateScheduler(exec));
+            System.out.printf("executor: %.2f bytes/tick, scheduler: %.2f bytes/tick%n", executorBytes, schedulerBytes);
+            if (schedulerBytes - executorBytes > 1)
+                throw new AssertionError("Scheduler allocates " + (schedulerBytes - executorBytes) + " bytes per tick on top of the executor");
+
+            testCancel(new VariableRateScheduler(exec));
+            System.out.println("All checks passed");
+        } finally {
+            exec.shutdownNow();
+        }
+    }
+
+    private static double measureSchedulerTick(VariableRateScheduler scheduler) throws InterruptedException {
+        var probe = new AllocationProbe();
+        scheduler.scheduleAtVariableRate(probe, 1, probe);
+        probe.done.await();
+        return probe.bytesPerTick();
+    }
+
+    private static double measureExecutorTick(ScheduledExecutorService exec) throws InterruptedException {
+        // The cheapest possible self-rescheduling task, to measure what the executor itself allocates per run
+        var probe = new AllocationProbe();
+        exec.schedule(new Runnable() {
+            @Override
+            public void run() {
+                probe.run();
+                if (probe.getAsLong() > 0) {
+                    exec.schedule(this, 1, TimeUnit.MILLISECONDS);
+                }
+            }
+        }, 1, TimeUnit.MILLISECONDS);
+        probe.done.await();
+        return probe.bytesPerTick();
+    }
+
+    private static void testCancel(VariableRateScheduler scheduler) throws InterruptedException {
+        var runs = new AtomicInteger();
+        VariableRateScheduler.ScheduledTask task = scheduler.scheduleAtVariableRate(runs::incrementAndGet, 1, () -> 1);
+        while (runs.get() < 5) {
+            Thread.sleep(1);
+        }
+
+        task.cancel();
+        Thread.sleep(20); // Let a run that was already in progress finish
+        int runsAfterCancel = runs.get();
+        Thread.sleep(50);
+        if (!task.isCancelled() || runs.get() != runsAfterCancel)
+            throw new AssertionError("Task kept running after it was cancelled");
+    }
+
+    private static final class AllocationProbe implements Runnable, LongSupplier {
+        private final com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int ticks;
+        private long startBytes;
+        private long endBytes;
+
+        @Override
+        public void run() {
+            ticks++;
+            if (ticks == WARMUP_TICKS) {
+                startBytes = threadBean.getCurrentThreadAllocatedBytes();
+            } else if (ticks == WARMUP_TICKS + MEASURED_TICKS) {
+                endBytes = threadBean.getCurrentThreadAllocatedBytes();
+                done.countDown();
+            }
+        }
+
+        @Override
+        public long getAsLong() {
+            return ticks < WARMUP_TICKS + MEASURED_TICKS ? 1 : 0;
+        }
+
+        private double bytesPerTick() {
+            return (double) (endBytes - startBytes) / MEASURED_TICKS;
+        }
+    }
+}